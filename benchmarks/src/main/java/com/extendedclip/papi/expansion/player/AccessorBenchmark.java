@@ -0,0 +1,59 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ping and locale of a stand-in player read through {@link PlayerAccessors}, against calling the {@link Player}
+ * API directly and against per-call reflection, as the expansion used to read them on older servers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessorBenchmark {
+
+    private Player player;
+    private Method getPing;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        player = StandIns.population(1).get(0);
+        getPing = Player.class.getMethod("getPing");
+        PlayerAccessors.init();
+    }
+
+    @Benchmark
+    public int accessorPing() {
+        return PlayerAccessors.ping(player);
+    }
+
+    @Benchmark
+    public String accessorLocale() {
+        return PlayerAccessors.locale(player);
+    }
+
+    @Benchmark
+    public int reflectionPing() throws ReflectiveOperationException {
+        return (int) getPing.invoke(player);
+    }
+
+    @Benchmark
+    public int directPing() {
+        return player.getPing();
+    }
+}
@@ -0,0 +1,59 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A scoreboard's worth of identifiers for one player, resolved through the batch entry point versus one
+ * {@code onRequest} call per identifier.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBenchmark {
+
+    @Param({"10", "40"})
+    public int size;
+
+    private PlayerExpansion expansion;
+    private Player player;
+    private String[] identifiers;
+
+    @Setup
+    public void setup() {
+        player = StandIns.population(1).get(0);
+        expansion = Identifiers.expansion();
+
+        final String[] supported = Identifiers.supported(expansion, player, Identifiers.ALL);
+        identifiers = Arrays.copyOf(supported, Math.min(size, supported.length));
+    }
+
+    @Benchmark
+    public void single(final Blackhole blackhole) {
+        for (final String identifier : identifiers) {
+            blackhole.consume(expansion.onRequest(player, identifier));
+        }
+    }
+
+    @Benchmark
+    public String[] batch() {
+        return expansion.onRequest(player, identifiers);
+    }
+}
@@ -0,0 +1,97 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting a coordinate-like double with a fixed number of decimal places: {@link Decimals} against
+ * {@link String#format(String, Object...)} and {@link DecimalFormat}, with the plain {@link String#valueOf(double)}
+ * the unsuffixed placeholders return as a baseline. Run with {@code -prof gc} to compare allocation as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecimalBenchmark {
+
+    private static final double[] VALUES = { 17.5, -1234.56789, 0.1 + 0.2, 29_999_984.123, -0.004, 64.0 };
+    // ties in their shortest decimal form that their binary value is just below or above
+    private static final double[] TIES = { 1.005, 0.285, -2.675, 0.125, 1.0005, 29_999_984.125, 4_503_599_627_370.4955 };
+
+    @Param({"1", "2"})
+    public int places;
+
+    private String pattern;
+    private DecimalFormat decimalFormat;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        pattern = "%." + places + "f";
+        decimalFormat = new DecimalFormat(places == 0 ? "0" : "0." + new String(new char[places]).replace('\0', '0'),
+                DecimalFormatSymbols.getInstance(Locale.ROOT));
+        decimalFormat.setRoundingMode(RoundingMode.HALF_UP);
+
+        verify(VALUES);
+        verify(TIES);
+    }
+
+    /**
+     * Fails the run if {@link Decimals} rounds differently from {@link BigDecimal#valueOf(double)}, so a faster but
+     * wrong fixed point path never makes it into the results.
+     */
+    private void verify(final double... values) {
+        for (final double value : values) {
+            final String expected = BigDecimal.valueOf(value).setScale(places, RoundingMode.HALF_UP).toPlainString();
+            final String actual = Decimals.format(value, places);
+            if (!expected.equals(actual)) {
+                throw new IllegalStateException("Decimals.format(" + value + ", " + places + ") is " + actual
+                        + ", expected " + expected);
+            }
+        }
+    }
+
+    private double next() {
+        final double value = VALUES[index];
+        index = (index + 1) % VALUES.length;
+        return value;
+    }
+
+    @Benchmark
+    public String fixedPoint() {
+        return Decimals.format(next(), places);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(Locale.ROOT, pattern, next());
+    }
+
+    @Benchmark
+    public String decimalFormat() {
+        return decimalFormat.format(next());
+    }
+
+    @Benchmark
+    public String valueOf() {
+        return String.valueOf(next());
+    }
+}
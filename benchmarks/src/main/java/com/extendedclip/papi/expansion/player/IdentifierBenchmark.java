@@ -0,0 +1,68 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Average cost of each identifier on its own, to spot slow placeholders and regressions between releases.
+ * {@link #main(String[])} runs every identifier from {@link Identifiers#ALL} with the gc profiler. Through the JMH
+ * launcher one identifier of each kind runs by default, pick others with {@code -p identifier=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class IdentifierBenchmark {
+
+    // annotation values must be constants, these are a subset of Identifiers.ALL
+    @Param({
+            "name", "first_join_date", "has_permission_essentials.fly", "locale", "ping", "colored_ping",
+            "world", "x", "direction", "biome", "item_in_hand", "empty_slots", "armor_helmet_durability",
+            "health_2dp", "world_time_12", "statistic_JUMP"
+    })
+    public String identifier;
+
+    private PlayerExpansion expansion;
+    private Player player;
+
+    @Setup
+    public void setup() {
+        player = StandIns.population(1).get(0);
+        expansion = Identifiers.expansion();
+
+        if (Identifiers.supported(expansion, player, identifier).length == 0) {
+            throw new IllegalStateException("The stand-ins cannot serve " + identifier);
+        }
+    }
+
+    @Benchmark
+    public String onRequest() {
+        return expansion.onRequest(player, identifier);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IdentifierBenchmark.class.getSimpleName())
+                .param("identifier", Identifiers.ALL)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.OfflinePlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every identifier the expansion supports, with sample arguments for the prefixed ones.
+ */
+final class Identifiers {
+
+    static final String[] ALL = {
+            "name", "uuid", "has_played_before", "online", "is_whitelisted", "is_banned", "is_op",
+            "first_played", "first_join", "first_played_formatted", "first_join_date",
+            "last_played", "last_join", "last_played_formatted", "last_join_date",
+            "first_join_ago", "last_join_ago",
+            "bed_x", "bed_y", "bed_z", "bed_world",
+            "ping_Player0", "colored_ping_Player0",
+            "has_permission_essentials.fly", "has_potioneffect_SPEED",
+            "item_in_hand_level_SHARPNESS", "item_in_offhand_level_SHARPNESS",
+            "absorption", "has_empty_slot", "empty_slots",
+            "locale", "locale_country", "locale_display_country", "locale_display_name", "locale_short",
+            "server", "servername", "displayname", "list_name", "gamemode", "direction", "direction_xz",
+            "world", "world_type", "x", "x_long", "y", "y_long", "z", "z_long", "yaw", "pitch",
+            "biome", "biome_capitalized", "light_level", "ip", "allow_flight", "can_pickup_items",
+            "compass_x", "compass_y", "compass_z", "compass_world", "block_underneath", "custom_name",
+            "exp", "current_exp", "total_exp", "exp_to_level", "level", "fly_speed", "food_level",
+            "health", "health_rounded", "health_scale", "has_health_boost", "health_boost",
+            "item_in_hand", "item_in_hand_name", "item_in_hand_data", "item_in_hand_durability",
+            "item_in_offhand", "item_in_offhand_name", "item_in_offhand_data", "item_in_offhand_durability",
+            "last_damage", "max_health", "max_health_rounded", "max_air", "max_no_damage_ticks", "no_damage_ticks",
+            "armor_helmet_name", "armor_helmet_data", "armor_helmet_durability",
+            "armor_chestplate_name", "armor_chestplate_data", "armor_chestplate_durability",
+            "armor_leggings_name", "armor_leggings_data", "armor_leggings_durability",
+            "armor_boots_name", "armor_boots_data", "armor_boots_durability",
+            "ping", "colored_ping", "time", "time_offset", "remaining_air", "saturation", "sleep_ticks",
+            "thunder_duration", "ticks_lived", "seconds_lived", "minutes_lived", "walk_speed", "weather_duration",
+            "world_time", "world_time_12", "world_time_24", "world_time_custom",
+            "is_flying", "is_sleeping", "is_conversing", "is_dead", "is_sneaking", "is_sprinting", "is_leashed",
+            "is_inside_vehicle",
+            "health_2dp", "max_health_1dp", "x_long_1dp", "y_long_1dp", "z_long_1dp", "yaw_0dp", "pitch_0dp",
+            "exp_2dp", "saturation_1dp", "walk_speed_2dp", "fly_speed_2dp",
+            "statistic_JUMP", "statistic_MINE_BLOCK_STONE", "statistic_KILL_ENTITY_ZOMBIE"
+    };
+
+    private Identifiers() { }
+
+    /**
+     * Drops identifiers the stand-ins cannot serve, reporting each one so a benchmark run never silently measures less
+     * than it claims.
+     */
+    static String[] supported(final PlayerExpansion expansion, final OfflinePlayer player, final String... identifiers) {
+        final List<String> supported = new ArrayList<>(identifiers.length);
+        for (final String identifier : identifiers) {
+            try {
+                if (expansion.onRequest(player, identifier) != null) {
+                    supported.add(identifier);
+                    continue;
+                }
+                System.err.println("[stand-in] unknown identifier " + identifier + ", skipped");
+            } catch (final RuntimeException | LinkageError ex) {
+                System.err.println("[stand-in] cannot serve " + identifier + " (" + ex + "), skipped");
+            }
+        }
+        return supported.toArray(new String[0]);
+    }
+
+    /**
+     * Creates an expansion configured with its defaults, without going through PlaceholderAPI.
+     */
+    static PlayerExpansion expansion() {
+        StandIns.installServer();
+        final PlayerExpansion expansion = new PlayerExpansion();
+        expansion.load(null, "yes", "no");
+        return expansion;
+    }
+}
@@ -0,0 +1,330 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires a mixed workload of every supported identifier from many threads at once, against stand-in populations of
+ * increasing size. Every result is compared with the value the same request returns from an expansion with its
+ * defaults, resolved single-threaded before the run, which catches shared mutable state such as date formats or
+ * lazily published accessors, and throughput and tail latency are reported per population.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.extendedclip.papi.expansion.player.LoadDriver [populations] [threads] [seconds] [mode]
+ * </pre>
+ * Populations are comma separated and default to {@code 100,1000,5000}. The mode is one of {@link Mode}, in lower case.
+ */
+public final class LoadDriver {
+
+    // these follow the clock, so they may legitimately differ from the value taken before the run
+    private static final Set<String> CLOCK_BOUND = new HashSet<>(Arrays.asList(
+            "time", "time_offset", "first_join_ago", "last_join_ago", "first_played_ago", "last_played_ago"));
+
+    // requests timed per thread, later ones are only counted
+    private static final int MAX_SAMPLES = 1 << 20;
+    // one request in this many goes through the batch entry point with a scoreboard's worth of identifiers
+    private static final int BATCH_EVERY = 16;
+    private static final int BATCH_SIZE = 15;
+    // requests the main thread makes per tick in snapshot mode, on top of the worker threads
+    private static final int MAIN_REQUESTS_PER_TICK = 64;
+
+    private LoadDriver() { }
+
+    /**
+     * What the expansion under load is configured with. Anything not listed keeps its default.
+     */
+    enum Mode {
+        /**
+         * Defaults only, every placeholder is read live.
+         */
+        LIVE(""),
+        /**
+         * The permission, inventory and block caches.
+         */
+        CACHED(" (cached)"),
+        /**
+         * Per-tick and async snapshots, driven by a stand-in main thread that also makes requests of its own. Players
+         * throw when worker threads read their world state, as those must only be served from published snapshots.
+         */
+        SNAPSHOTS(" (snapshots)");
+
+        private final String label;
+
+        Mode(final String label) {
+            this.label = label;
+        }
+
+        private MemoryConfiguration config() {
+            final MemoryConfiguration config = new MemoryConfiguration();
+            if (this == CACHED) {
+                config.set("permission_cache.enabled", true);
+                config.set("inventory_summary.enabled", true);
+                config.set("block_cache.enabled", true);
+            } else if (this == SNAPSHOTS) {
+                config.set("snapshot.enabled", true);
+                config.set("snapshot.async", true);
+            }
+            return config;
+        }
+    }
+
+    /**
+     * The outcome of one run.
+     */
+    static final class Result {
+
+        final long requests;
+        final int mismatches;
+
+        private Result(final long requests, final int mismatches) {
+            this.requests = requests;
+            this.mismatches = mismatches;
+        }
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final int[] populations = args.length > 0
+                ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[]{100, 1000, 5000};
+        final int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        final int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        final Mode mode = args.length > 3 ? Mode.valueOf(args[3].toUpperCase(Locale.ROOT)) : Mode.LIVE;
+
+        int failures = 0;
+        for (final int population : populations) {
+            failures += run(population, threads, TimeUnit.SECONDS.toMillis(seconds), mode).mismatches;
+        }
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    static Result run(final int size, final int threadCount, final long millis, final Mode mode) throws InterruptedException {
+        final List<Player> population = StandIns.population(size);
+        final Player[] players = population.toArray(new Player[0]);
+
+        final PlayerExpansion reference = new PlayerExpansion();
+        reference.load(null, "yes", "no");
+        final String[] identifiers = Identifiers.supported(reference, players[0], Identifiers.ALL);
+        final Map<Player, String[]> expected = new HashMap<>();
+        for (final Player player : players) {
+            final String[] values = new String[identifiers.length];
+            for (int i = 0; i < identifiers.length; i++) {
+                values[i] = reference.onRequest(player, identifiers[i]);
+            }
+            expected.put(player, values);
+        }
+
+        final StandInServer server = mode == Mode.SNAPSHOTS ? new StandInServer() : null;
+        final PlayerExpansion expansion = new PlayerExpansion();
+        if (server != null) {
+            expansion.setScheduler(server);
+        }
+        expansion.load(mode.config(), "yes", "no");
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicInteger mismatches = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Worker> workers = new ArrayList<>(threadCount + 1);
+        final List<Thread> threads = new ArrayList<>(threadCount);
+        TaskScheduler.Task mainRequests = null;
+        final long began;
+        try {
+            if (server != null) {
+                expansion.start();
+                StandIns.setOwnership(player -> Bukkit.isPrimaryThread());
+                awaitPublished(expansion, players, identifiers, expected);
+
+                final Worker main = new Worker(expansion, players, identifiers, expected, running, mismatches, start);
+                workers.add(main);
+                mainRequests = server.runGlobalTimer(null, () -> {
+                    for (int i = 0; i < MAIN_REQUESTS_PER_TICK && running.get(); i++) {
+                        main.request();
+                    }
+                }, 1L, 1L);
+            }
+
+            for (int i = 0; i < threadCount; i++) {
+                final Worker worker = new Worker(expansion, players, identifiers, expected, running, mismatches, start);
+                final Thread thread = new Thread(worker, "load-" + i);
+                workers.add(worker);
+                threads.add(thread);
+                thread.start();
+            }
+
+            began = System.nanoTime();
+            start.countDown();
+            Thread.sleep(millis);
+        } finally {
+            running.set(false);
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+            if (mainRequests != null) {
+                mainRequests.cancel();
+            }
+            if (server != null) {
+                expansion.stop();
+                // the main thread's worker is only read once its last tick is over
+                server.shutdown();
+                StandIns.setOwnership(null);
+            }
+        }
+        final long elapsed = System.nanoTime() - began;
+
+        long requests = 0;
+        int sampled = 0;
+        for (final Worker worker : workers) {
+            requests += worker.requests;
+            sampled += worker.sampled;
+        }
+        final long[] latencies = new long[sampled];
+        int offset = 0;
+        for (final Worker worker : workers) {
+            System.arraycopy(worker.samples, 0, latencies, offset, worker.sampled);
+            offset += worker.sampled;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("%5d players, %2d threads, %3d identifiers%s: %,12.0f req/s  p50 %,7d ns  p99 %,8d ns  p99.9 %,9d ns  %d wrong%n",
+                size, threadCount, identifiers.length, mode.label,
+                requests / (elapsed / 1e9), percentile(latencies, 0.5), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), mismatches.get());
+        return new Result(requests, mismatches.get());
+    }
+
+    /**
+     * Waits until the main thread published snapshots of every player, before that requests from other threads
+     * rightfully resolve to empty values.
+     */
+    private static void awaitPublished(final PlayerExpansion expansion, final Player[] players, final String[] identifiers,
+                                       final Map<Player, String[]> expected) throws InterruptedException {
+        final int world = Arrays.asList(identifiers).indexOf("world");
+        final Player last = players[players.length - 1];
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!expected.get(last)[world].equals(expansion.onRequest(last, "world"))) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("No snapshots were published within 30 seconds");
+            }
+            Thread.sleep(StandInServer.TICK_MILLIS);
+        }
+    }
+
+    private static long percentile(final long[] sorted, final double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+
+    private static final class Worker implements Runnable {
+
+        private final PlayerExpansion expansion;
+        private final Player[] players;
+        private final String[] identifiers;
+        private final Map<Player, String[]> expected;
+        private final AtomicBoolean running;
+        private final AtomicInteger mismatches;
+        private final CountDownLatch start;
+
+        private final long[] samples = new long[MAX_SAMPLES];
+        private final String[] batch = new String[BATCH_SIZE];
+        private final int[] indices = new int[BATCH_SIZE];
+        private int sampled;
+        private long requests;
+
+        private Worker(final PlayerExpansion expansion, final Player[] players, final String[] identifiers,
+                       final Map<Player, String[]> expected, final AtomicBoolean running,
+                       final AtomicInteger mismatches, final CountDownLatch start) {
+            this.expansion = expansion;
+            this.players = players;
+            this.identifiers = identifiers;
+            this.expected = expected;
+            this.running = running;
+            this.mismatches = mismatches;
+            this.start = start;
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.await();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            while (running.get()) {
+                request();
+            }
+        }
+
+        /**
+         * Makes one request, or one batch of them, and checks the results. Only ever called from a single thread.
+         */
+        private void request() {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            final Player player = players[random.nextInt(players.length)];
+            final String[] values = expected.get(player);
+
+            try {
+                if (random.nextInt(BATCH_EVERY) == 0) {
+                    for (int i = 0; i < BATCH_SIZE; i++) {
+                        indices[i] = random.nextInt(identifiers.length);
+                        batch[i] = identifiers[indices[i]];
+                    }
+                    final long began = System.nanoTime();
+                    final String[] results = expansion.onRequest(player, batch);
+                    record(System.nanoTime() - began);
+                    for (int i = 0; i < BATCH_SIZE; i++) {
+                        verify(player, identifiers[indices[i]], results[i], values[indices[i]]);
+                    }
+                    return;
+                }
+
+                final int index = random.nextInt(identifiers.length);
+                final long began = System.nanoTime();
+                final String result = expansion.onRequest(player, identifiers[index]);
+                record(System.nanoTime() - began);
+                verify(player, identifiers[index], result, values[index]);
+            } catch (final RuntimeException ex) {
+                report(player, "threw " + ex);
+            }
+        }
+
+        private void record(final long nanos) {
+            requests++;
+            if (sampled < samples.length) {
+                samples[sampled++] = nanos;
+            }
+        }
+
+        private void verify(final Player player, final String identifier, final String result, final String expected) {
+            if (CLOCK_BOUND.contains(identifier) || (result != null && result.equals(expected))) {
+                return;
+            }
+            report(player, identifier + ": '" + result + "', expected '" + expected + "'");
+        }
+
+        private void report(final Player player, final String problem) {
+            // only the first few are worth reading
+            if (mismatches.incrementAndGet() <= 10) {
+                System.err.println(player.getName() + " " + problem + " on " + Thread.currentThread().getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed workload: requests cycle through a number of players and identifiers, like scoreboards of a full server.
+ * Run with {@code -prof gc} to see the allocation rate next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaceholderBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int players;
+
+    /**
+     * How many distinct identifiers are requested, 0 for every supported one.
+     */
+    @Param({"1", "16", "0"})
+    public int identifiers;
+
+    private PlayerExpansion expansion;
+    private Player[] population;
+    private String[] requested;
+
+    @Setup
+    public void setup() {
+        population = StandIns.population(players).toArray(new Player[0]);
+        expansion = Identifiers.expansion();
+
+        final String[] supported = Identifiers.supported(expansion, population[0], Identifiers.ALL);
+        requested = identifiers == 0 ? supported : Arrays.copyOf(supported, Math.min(identifiers, supported.length));
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        int next() {
+            return next++ & Integer.MAX_VALUE;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String singleThreaded(final Cursor cursor) {
+        return request(cursor.next());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String multiThreaded(final Cursor cursor) {
+        return request(cursor.next());
+    }
+
+    private String request(final int i) {
+        return expansion.onRequest(population[i % population.length], requested[i % requested.length]);
+    }
+}
@@ -0,0 +1,106 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A region-threaded {@link TaskScheduler} stand-in: every player belongs to one of a fixed number of region threads,
+ * and a tick lasts {@link #TICK_MILLIS} milliseconds so checks don't have to wait for real server ticks.
+ */
+final class StandInRegions implements TaskScheduler {
+
+    static final long TICK_MILLIS = 5L;
+
+    private final ScheduledExecutorService global = Executors.newSingleThreadScheduledExecutor(named("global"));
+    private final ScheduledExecutorService[] regions;
+    private final Thread[] threads;
+
+    StandInRegions(final int count) {
+        regions = new ScheduledExecutorService[count];
+        threads = new Thread[count];
+        for (int i = 0; i < count; i++) {
+            final int region = i;
+            regions[i] = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = named("region-" + region).newThread(runnable);
+                threads[region] = thread;
+                return thread;
+            });
+        }
+    }
+
+    private static ThreadFactory named(final String name) {
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "stand-in-" + name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private int region(final Player player) {
+        return Math.floorMod(player.getUniqueId().hashCode(), regions.length);
+    }
+
+    /**
+     * Runs a task on the thread owning the player and waits for it.
+     */
+    <T> T onOwner(final Player player, final Callable<T> task) throws Exception {
+        final Future<T> result = regions[region(player)].submit(task);
+        return result.get(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public boolean isRegionThreaded() {
+        return true;
+    }
+
+    @Override
+    public boolean owns(final Player player) {
+        return Thread.currentThread() == threads[region(player)];
+    }
+
+    @Override
+    public Task runGlobalTimer(final Plugin plugin, final Runnable task, final long delay, final long period) {
+        return timer(global, task, delay, period);
+    }
+
+    @Override
+    public void runGlobalLater(final Plugin plugin, final Runnable task, final long delay) {
+        global.schedule(task, delay * TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void runAsync(final Plugin plugin, final Runnable task) {
+        global.execute(task);
+    }
+
+    @Override
+    public Task runAsyncTimer(final Plugin plugin, final Runnable task, final long delay, final long period) {
+        return timer(global, task, delay, period);
+    }
+
+    @Override
+    public Task runPlayerTimer(final Plugin plugin, final Player player, final Runnable task, final long delay, final long period) {
+        return timer(regions[region(player)], task, delay, period);
+    }
+
+    private static Task timer(final ScheduledExecutorService executor, final Runnable task, final long delay, final long period) {
+        final ScheduledFuture<?> future = executor.scheduleAtFixedRate(task, delay * TICK_MILLIS, period * TICK_MILLIS, TimeUnit.MILLISECONDS);
+        return () -> future.cancel(false);
+    }
+
+    void shutdown() {
+        global.shutdownNow();
+        for (final ExecutorService region : regions) {
+            region.shutdownNow();
+        }
+    }
+}
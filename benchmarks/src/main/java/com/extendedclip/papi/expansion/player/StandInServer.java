@@ -0,0 +1,88 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link TaskScheduler} stand-in for a server with one main thread, which becomes the stand-in server's primary
+ * thread. A tick lasts {@link #TICK_MILLIS} milliseconds so runs don't have to wait for real server ticks.
+ */
+final class StandInServer implements TaskScheduler {
+
+    static final long TICK_MILLIS = 5L;
+
+    private final ScheduledExecutorService main = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "stand-in-main");
+        thread.setDaemon(true);
+        StandIns.setPrimaryThread(thread);
+        return thread;
+    });
+    private final ScheduledExecutorService async = Executors.newScheduledThreadPool(2, runnable -> {
+        final Thread thread = new Thread(runnable, "stand-in-async");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    StandInServer() {
+        // creates the main thread right away, so it is the primary thread before anything is scheduled
+        main.execute(() -> { });
+    }
+
+    @Override
+    public boolean isRegionThreaded() {
+        return false;
+    }
+
+    @Override
+    public boolean owns(final Player player) {
+        return Bukkit.isPrimaryThread();
+    }
+
+    @Override
+    public Task runGlobalTimer(final Plugin plugin, final Runnable task, final long delay, final long period) {
+        return timer(main, task, delay, period);
+    }
+
+    @Override
+    public void runGlobalLater(final Plugin plugin, final Runnable task, final long delay) {
+        main.schedule(task, delay * TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void runAsync(final Plugin plugin, final Runnable task) {
+        async.execute(task);
+    }
+
+    @Override
+    public Task runAsyncTimer(final Plugin plugin, final Runnable task, final long delay, final long period) {
+        return timer(async, task, delay, period);
+    }
+
+    @Override
+    public Task runPlayerTimer(final Plugin plugin, final Player player, final Runnable task, final long delay, final long period) {
+        return timer(main, task, delay, period);
+    }
+
+    private static Task timer(final ScheduledExecutorService executor, final Runnable task, final long delay, final long period) {
+        final ScheduledFuture<?> future = executor.scheduleAtFixedRate(task, delay * TICK_MILLIS, period * TICK_MILLIS, TimeUnit.MILLISECONDS);
+        return () -> future.cancel(false);
+    }
+
+    /**
+     * Stops the threads and waits for the tasks still running on them, so everything they did is visible afterwards.
+     */
+    void shutdown() throws InterruptedException {
+        main.shutdownNow();
+        async.shutdownNow();
+        if (!main.awaitTermination(10, TimeUnit.SECONDS) || !async.awaitTermination(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("The stand-in server did not stop within 10 seconds");
+        }
+        StandIns.setPrimaryThread(null);
+    }
+}
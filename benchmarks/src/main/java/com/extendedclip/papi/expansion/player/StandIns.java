@@ -0,0 +1,348 @@
+package com.extendedclip.papi.expansion.player;
+
+import me.clip.placeholderapi.PlaceholderAPIPlugin;
+import me.clip.placeholderapi.configuration.PlaceholderAPIConfig;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Registry;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.block.Block;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * In-memory stand-ins for the Bukkit objects the expansion reads, built from dynamic proxies so the expansion can be
+ * exercised without a Minecraft server. Methods that are not stubbed return zero, false or null.
+ */
+final class StandIns {
+
+    static final String BUKKIT_VERSION = "1.21.10-R0.1-SNAPSHOT";
+
+    private static final Map<String, Player> PLAYERS = new ConcurrentHashMap<>();
+    private static boolean installed;
+    private static volatile Predicate<Player> owner;
+    private static volatile Thread primaryThread;
+
+    private StandIns() { }
+
+    /**
+     * Computes a stubbed return value from the call arguments.
+     */
+    @FunctionalInterface
+    interface Answer {
+
+        Object answer(Object self, Object[] args);
+    }
+
+    /**
+     * Installs a stand-in {@link Server} as the Bukkit singleton and a PlaceholderAPI plugin instance, once per JVM.
+     */
+    static synchronized void installServer() {
+        if (installed) {
+            return;
+        }
+
+        final Map<String, Object> server = new HashMap<>();
+        server.put("getBukkitVersion", BUKKIT_VERSION);
+        server.put("getVersion", BUKKIT_VERSION);
+        server.put("getName", "StandIn");
+        server.put("getLogger", Logger.getLogger("StandIn"));
+        server.put("isPrimaryThread", (Answer) (self, args) -> Thread.currentThread() == primaryThread);
+        server.put("getOnlinePlayers", Collections.unmodifiableCollection(PLAYERS.values()));
+        server.put("getPlayer", (Answer) (self, args) -> args[0] instanceof String ? PLAYERS.get(((String) args[0]).toLowerCase(Locale.ROOT)) : null);
+        server.put("getPlayerExact", (Answer) (self, args) -> PLAYERS.get(((String) args[0]).toLowerCase(Locale.ROOT)));
+        server.put("getItemFactory", proxy(ItemFactory.class, Collections.singletonMap("getItemMeta", (Answer) (self, args) -> itemMeta())));
+        // listeners are accepted and never called
+        server.put("getPluginManager", proxy(PluginManager.class, Collections.emptyMap()));
+        // registries resolve every key to null, which the expansion treats as an unknown name
+        server.put("getRegistry", (Answer) (self, args) -> proxy(Registry.class, Collections.emptyMap()));
+
+        Bukkit.setServer(proxy(Server.class, server));
+        installPlaceholderAPI();
+        installed = true;
+    }
+
+    /**
+     * Installs a PlaceholderAPI instance configured with its default date format and booleans. Plugins refuse to be
+     * constructed outside a plugin class loader, so it is allocated without running a constructor and only the fields
+     * behind {@link PlaceholderAPIPlugin#getDateFormat()} and friends are filled in.
+     */
+    private static void installPlaceholderAPI() {
+        try {
+            // sun.misc.Unsafe is reached reflectively as it is not part of the compile-time API
+            final Class<?> type = Class.forName("sun.misc.Unsafe");
+            final Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            final PlaceholderAPIPlugin plugin = (PlaceholderAPIPlugin) type.getMethod("allocateInstance", Class.class)
+                    .invoke(field.get(null), PlaceholderAPIPlugin.class);
+
+            final YamlConfiguration config = new YamlConfiguration();
+            config.set("date_format", "MM/dd/yy HH:mm:ss");
+            config.set("boolean.true", "yes");
+            config.set("boolean.false", "no");
+            setField(JavaPlugin.class, plugin, FileConfiguration.class, config);
+            setField(PlaceholderAPIPlugin.class, plugin, PlaceholderAPIConfig.class, new PlaceholderAPIConfig(plugin));
+            setField(PlaceholderAPIPlugin.class, null, PlaceholderAPIPlugin.class, plugin);
+        } catch (final ReflectiveOperationException ex) {
+            throw new IllegalStateException("Cannot install a PlaceholderAPI stand-in", ex);
+        }
+    }
+
+    /**
+     * Sets the only field of the given type, static when the target is null. Fields are found by type so renames
+     * between PlaceholderAPI and Bukkit versions don't matter.
+     */
+    private static void setField(final Class<?> owner, final Object target, final Class<?> type, final Object value)
+            throws ReflectiveOperationException {
+        for (final Field field : owner.getDeclaredFields()) {
+            if (field.getType() == type && Modifier.isStatic(field.getModifiers()) == (target == null)) {
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            }
+        }
+        throw new NoSuchFieldException(owner.getName() + " has no field of type " + type.getName());
+    }
+
+    /**
+     * Makes {@link Bukkit#isPrimaryThread()} true on the given thread only. Null, the default, leaves the server without
+     * a main thread, like requests from async tasks see it.
+     */
+    static void setPrimaryThread(final Thread thread) {
+        primaryThread = thread;
+    }
+
+    /**
+     * Makes players throw when their location, world or inventory is read from a thread the predicate rejects,
+     * like a region-threaded server does. Null lets every thread read them.
+     */
+    static void setOwnership(final Predicate<Player> owner) {
+        StandIns.owner = owner;
+    }
+
+    private static void checkOwner(final Object player) {
+        final Predicate<Player> owner = StandIns.owner;
+        if (owner != null && !owner.test((Player) player)) {
+            throw new IllegalStateException(((Player) player).getName() + " read from " + Thread.currentThread().getName()
+                    + ", which does not own it");
+        }
+    }
+
+    /**
+     * Creates a population of online players sharing one world and makes them visible through the stand-in server.
+     */
+    static List<Player> population(final int size) {
+        installServer();
+        PLAYERS.clear();
+
+        final World world = world("world");
+        final List<Player> players = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final Player player = player("Player" + i, world, i);
+            PLAYERS.put(player.getName().toLowerCase(Locale.ROOT), player);
+            players.add(player);
+        }
+        return players;
+    }
+
+    static World world(final String name) {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("getName", name);
+        values.put("getEnvironment", World.Environment.NORMAL);
+        values.put("getTime", 6000L);
+        values.put("getThunderDuration", 1200);
+        values.put("getWeatherDuration", 2400);
+        values.put("getBlockAt", (Answer) (self, args) -> block());
+        return proxy(World.class, values);
+    }
+
+    static Block block() {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("getLightLevel", (byte) 15);
+        values.put("getType", Material.GRASS_BLOCK);
+        values.put("getBiome", proxy(Biome.class, Collections.singletonMap("name", "DARK_FOREST")));
+        return proxy(Block.class, values);
+    }
+
+    static Player player(final String name, final World world, final int index) {
+        final double x = index * 16 + 0.5;
+        final double z = -index * 16 - 0.5;
+        final InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 25565);
+        // the inventory checks the owner of the player it belongs to, which only exists once the player does
+        final Player[] owner = new Player[1];
+        final PlayerInventory inventory = inventory(() -> owner[0]);
+
+        final Map<String, Object> values = new HashMap<>();
+        values.put("getName", name);
+        values.put("getDisplayName", name);
+        values.put("getPlayerListName", name);
+        values.put("getUniqueId", UUID.nameUUIDFromBytes(name.getBytes()));
+        values.put("getPlayer", (Answer) (self, args) -> self);
+        values.put("isOnline", true);
+        values.put("hasPlayedBefore", true);
+        values.put("getFirstPlayed", 1_600_000_000_000L);
+        values.put("getLastPlayed", 1_700_000_000_000L);
+        // every call returns a fresh copy, like the server does
+        values.put("getLocation", (Answer) (self, args) -> {
+            checkOwner(self);
+            return new Location(world, x, 64, z, 90f, 10f);
+        });
+        values.put("getBedSpawnLocation", (Answer) (self, args) -> new Location(world, x, 63, z));
+        values.put("getCompassTarget", (Answer) (self, args) -> new Location(world, 0, 64, 0));
+        values.put("getWorld", (Answer) (self, args) -> {
+            checkOwner(self);
+            return world;
+        });
+        values.put("getInventory", (Answer) (self, args) -> {
+            checkOwner(self);
+            return inventory;
+        });
+        values.put("getGameMode", GameMode.SURVIVAL);
+        values.put("getAddress", address);
+        values.put("getPing", 20 + index % 200);
+        values.put("getLocale", "en_us");
+        values.put("hasPermission", (Answer) (self, args) -> ((String) args[0]).startsWith("essentials."));
+        values.put("getHealth", 17.5);
+        values.put("getMaxHealth", 20.0);
+        values.put("getHealthScale", 20.0);
+        values.put("getAbsorptionAmount", 4.0);
+        values.put("getLastDamage", 2.5);
+        values.put("getLevel", 31);
+        values.put("getExp", 0.42f);
+        values.put("getTotalExperience", 1_500);
+        values.put("getExpToLevel", 121);
+        values.put("getFoodLevel", 18);
+        values.put("getSaturation", 3.5f);
+        values.put("getWalkSpeed", 0.2f);
+        values.put("getFlySpeed", 0.1f);
+        values.put("getRemainingAir", 300);
+        values.put("getMaximumAir", 300);
+        values.put("getMaximumNoDamageTicks", 20);
+        values.put("getTicksLived", 72_000 + index);
+        values.put("getPlayerTime", 6000L);
+        owner[0] = proxy(Player.class, values);
+        return owner[0];
+    }
+
+    /**
+     * @param owner The player holding the inventory, every read of it is checked against {@link #setOwnership}
+     */
+    static PlayerInventory inventory(final Supplier<Player> owner) {
+        final ItemStack[] contents = new ItemStack[41];
+        contents[0] = new ItemStack(Material.DIAMOND_SWORD);
+        contents[1] = new ItemStack(Material.STONE);
+        contents[39] = new ItemStack(Material.DIAMOND_HELMET);
+
+        final Map<String, Object> values = new HashMap<>();
+        values.put("getContents", (Answer) (self, args) -> contents.clone());
+        values.put("firstEmpty", 2);
+        values.put("getItemInMainHand", contents[0]);
+        values.put("getItemInHand", contents[0]);
+        values.put("getItemInOffHand", new ItemStack(Material.AIR));
+        values.put("getHelmet", contents[39]);
+
+        final PlayerInventory inventory = proxy(PlayerInventory.class, values);
+        return (PlayerInventory) Proxy.newProxyInstance(StandIns.class.getClassLoader(), new Class<?>[]{PlayerInventory.class},
+                (self, method, args) -> {
+                    if (method.getDeclaringClass() != Object.class) {
+                        checkOwner(owner.get());
+                    }
+                    try {
+                        return method.invoke(inventory, args);
+                    } catch (final InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+
+    static ItemMeta itemMeta() {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("getDisplayName", "");
+        values.put("clone", (Answer) (self, args) -> self);
+        return proxy(ItemMeta.class, values, Damageable.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T proxy(final Class<T> type, final Map<String, Object> values, final Class<?>... extra) {
+        final Class<?>[] interfaces = new Class<?>[extra.length + 1];
+        interfaces[0] = type;
+        System.arraycopy(extra, 0, interfaces, 1, extra.length);
+
+        return (T) Proxy.newProxyInstance(StandIns.class.getClassLoader(), interfaces, (self, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return self == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(self);
+                    default:
+                        return type.getSimpleName() + " stand-in";
+                }
+            }
+
+            final Object value = values.get(method.getName());
+            if (value instanceof Answer) {
+                return ((Answer) value).answer(self, args == null ? new Object[0] : args);
+            }
+            return value != null ? value : defaultValue(method.getReturnType());
+        });
+    }
+
+    private static Object defaultValue(final Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        return 0d;
+    }
+}
@@ -0,0 +1,23 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A short {@link LoadDriver} run per mode, so concurrent requests are checked on every build rather than only when
+ * someone runs the driver by hand.
+ */
+class LoadDriverTest {
+
+    @ParameterizedTest
+    @EnumSource(LoadDriver.Mode.class)
+    void concurrentRequestsMatchSingleThreaded(final LoadDriver.Mode mode) throws InterruptedException {
+        final LoadDriver.Result result = LoadDriver.run(50, 4, 500L, mode);
+
+        assertTrue(result.requests > 0, "no requests were made");
+        assertEquals(0, result.mismatches, "wrong results");
+    }
+}
@@ -0,0 +1,93 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that on a region-threaded server, world placeholders requested from threads that don't own the player are
+ * served from the captures taken on the owning thread, and never read the player's world themselves. Runs against
+ * {@link StandInRegions}, whose players throw when read from the wrong thread.
+ */
+class RegionRoutingTest {
+
+    private static final int PLAYERS = 200;
+    private static final int REGIONS = 4;
+
+    private static final String[] WORLD_IDENTIFIERS = {
+            "world", "x", "y", "z", "yaw", "direction", "biome", "biome_capitalized", "light_level", "block_underneath",
+            "world_time_24", "thunder_duration", "weather_duration", "item_in_hand", "item_in_offhand",
+            "empty_slots", "has_empty_slot", "armor_helmet_durability", "item_in_hand_level_SHARPNESS"
+    };
+
+    @Test
+    void foreignRequestsAreServedFromCaptures() throws Exception {
+        final List<Player> population = StandIns.population(PLAYERS);
+        final StandInRegions regions = new StandInRegions(REGIONS);
+        final PlayerExpansion expansion = Identifiers.expansion();
+        expansion.setScheduler(regions);
+        StandIns.setOwnership(regions::owns);
+        expansion.start();
+
+        final ExecutorService foreign = Executors.newFixedThreadPool(8);
+        final Queue<String> failures = new ConcurrentLinkedQueue<>();
+        try {
+            awaitCaptures(expansion, population);
+
+            final List<Future<?>> checks = new ArrayList<>();
+            for (final Player player : population) {
+                checks.add(foreign.submit(() -> check(expansion, regions, player, failures)));
+            }
+            for (final Future<?> check : checks) {
+                check.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            foreign.shutdownNow();
+            expansion.stop();
+            regions.shutdown();
+            StandIns.setOwnership(null);
+        }
+
+        assertTrue(failures.isEmpty(), failures.size() + " of " + PLAYERS * WORLD_IDENTIFIERS.length
+                + " requests failed, first: " + failures.peek());
+    }
+
+    /**
+     * Waits until every player has been captured on their region, before that requests from other threads rightfully
+     * resolve to empty values.
+     */
+    private static void awaitCaptures(final PlayerExpansion expansion, final List<Player> population) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        for (final Player player : population) {
+            while (expansion.onRequest(player, "world").isEmpty()) {
+                assertTrue(System.nanoTime() < deadline, player.getName() + " was not captured within 30 seconds");
+                Thread.sleep(StandInRegions.TICK_MILLIS);
+            }
+        }
+    }
+
+    private static void check(final PlayerExpansion expansion, final StandInRegions regions, final Player player,
+                              final Queue<String> failures) {
+        for (final String identifier : WORLD_IDENTIFIERS) {
+            try {
+                final String routed = expansion.onRequest(player, identifier);
+                final String owned = regions.onOwner(player, () -> expansion.onRequest(player, identifier));
+                if (routed == null || routed.isEmpty() || !routed.equals(owned)) {
+                    failures.add(player.getName() + " " + identifier + ": '" + routed + "' off its region, '" + owned + "' on it");
+                }
+            } catch (final Exception ex) {
+                failures.add(player.getName() + " " + identifier + ": " + ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.extendedclip.papi.expansion.player;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Memoises the lookup of a placeholder argument (an effect, enchantment...) by name, including names that resolve to
+ * nothing, so each distinct argument hits the registry once.
+ *
+ * @param <T> The resolved type
+ */
+public final class ArgumentCache<T> {
+
+    private static final int MAX_SIZE = 4096;
+
+    private final Map<String, Optional<T>> cache = new ConcurrentHashMap<>();
+    private final Function<String, T> lookup;
+
+    /**
+     * @param lookup Resolves a name, returning null if it is unknown
+     */
+    public ArgumentCache(final Function<String, T> lookup) {
+        this.lookup = lookup;
+    }
+
+    /**
+     * @return The resolved argument, or null if the name is unknown
+     */
+    public T get(final String name) {
+        Optional<T> resolved = cache.get(name);
+        if (resolved == null) {
+            resolved = Optional.ofNullable(lookup.apply(name));
+
+            // names come from user input, so stop caching rather than growing without bound
+            if (cache.size() < MAX_SIZE) {
+                cache.putIfAbsent(name, resolved);
+            }
+        }
+        return resolved.orElse(null);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+}
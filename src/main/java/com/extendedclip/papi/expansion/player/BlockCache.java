@@ -0,0 +1,116 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The biome, light level and block underneath of the block each player stands in, kept until the player moves into
+ * another block. Light and the block underneath can also change while the player stands still, so entries expire after
+ * a maximum age as well.
+ */
+public final class BlockCache {
+
+    private final Map<UUID, BlockInfo> players = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+    private volatile long maxAgeNanos;
+
+    /**
+     * @param maxAge How long the values of a block are kept while the player stays in it, in ticks
+     */
+    public void configure(final boolean enabled, final int maxAge) {
+        this.enabled = enabled;
+        this.maxAgeNanos = PlayerUtil.ticksToNanos(maxAge);
+        players.clear();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public BlockInfo of(final Player player, final Location location) {
+        final World world = location.getWorld();
+        final int x = location.getBlockX();
+        final int y = location.getBlockY();
+        final int z = location.getBlockZ();
+        final long now = System.nanoTime();
+
+        BlockInfo info = players.get(player.getUniqueId());
+        if (info == null || !info.isAt(world, x, y, z) || now - info.created >= maxAgeNanos) {
+            info = new BlockInfo(world, x, y, z, now);
+            players.put(player.getUniqueId(), info);
+        }
+        return info;
+    }
+
+    public void remove(final UUID uuid) {
+        players.remove(uuid);
+    }
+
+    public void clear() {
+        players.clear();
+    }
+
+    /**
+     * The values of one block, each read on first use.
+     */
+    public static final class BlockInfo {
+
+        private static final int UNSET = -1;
+
+        private final World world;
+        private final int x;
+        private final int y;
+        private final int z;
+        private final long created;
+
+        // racing threads at worst read the same value twice
+        private volatile int lightLevel = UNSET;
+        private volatile String biome;
+        private volatile String blockUnderneath;
+
+        private BlockInfo(final World world, final int x, final int y, final int z, final long created) {
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.created = created;
+        }
+
+        private boolean isAt(final World world, final int x, final int y, final int z) {
+            return this.world == world && this.x == x && this.y == y && this.z == z;
+        }
+
+        public int getLightLevel() {
+            int light = lightLevel;
+            if (light == UNSET) {
+                light = world.getBlockAt(x, y, z).getLightLevel();
+                lightLevel = light;
+            }
+            return light;
+        }
+
+        public String getBiome() {
+            String name = biome;
+            if (name == null) {
+                name = PlayerUtil.getBiome(world.getBlockAt(x, y, z));
+                biome = name;
+            }
+            return name;
+        }
+
+        public String getBlockUnderneath() {
+            String name = blockUnderneath;
+            if (name == null) {
+                name = String.valueOf(world.getBlockAt(x, y - 1, z).getType());
+                blockUnderneath = name;
+            }
+            return name;
+        }
+    }
+}
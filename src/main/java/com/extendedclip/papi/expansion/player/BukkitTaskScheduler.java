@@ -0,0 +1,46 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Runs everything on the main thread, which owns every player.
+ */
+public final class BukkitTaskScheduler implements TaskScheduler {
+
+    @Override
+    public boolean isRegionThreaded() {
+        return false;
+    }
+
+    @Override
+    public boolean owns(final Player player) {
+        return Bukkit.isPrimaryThread();
+    }
+
+    @Override
+    public Task runGlobalTimer(final Plugin plugin, final Runnable task, final long delay, final long period) {
+        return Bukkit.getScheduler().runTaskTimer(plugin, task, delay, period)::cancel;
+    }
+
+    @Override
+    public void runGlobalLater(final Plugin plugin, final Runnable task, final long delay) {
+        Bukkit.getScheduler().runTaskLater(plugin, task, delay);
+    }
+
+    @Override
+    public void runAsync(final Plugin plugin, final Runnable task) {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+    }
+
+    @Override
+    public Task runAsyncTimer(final Plugin plugin, final Runnable task, final long delay, final long period) {
+        return Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, task, delay, period)::cancel;
+    }
+
+    @Override
+    public Task runPlayerTimer(final Plugin plugin, final Player player, final Runnable task, final long delay, final long period) {
+        return runGlobalTimer(plugin, task, delay, period);
+    }
+}
@@ -0,0 +1,87 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Statistic;
+import org.bukkit.block.Biome;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Damageable;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.util.function.Function;
+
+/**
+ * What the server's API offers, probed once by looking up the methods themselves rather than parsing the version
+ * string. Accessors that differ between versions are fixed to a single implementation here, so requests never branch
+ * on the version or recover from a missing method.
+ */
+final class Capabilities {
+
+    /**
+     * 1.9 added the off hand, and with it the armor and off hand slots in {@link PlayerInventory#getContents()}.
+     */
+    static final boolean HAS_OFF_HAND = hasMethod(PlayerInventory.class, "getItemInOffHand");
+
+    /**
+     * @see Damageable#getAbsorptionAmount()
+     */
+    static final boolean HAS_ABSORPTION = hasMethod(Damageable.class, "getAbsorptionAmount");
+
+    /**
+     * @see OfflinePlayer#getStatistic(Statistic)
+     */
+    static final boolean HAS_OFFLINE_STATISTICS = hasMethod(OfflinePlayer.class, "getStatistic", Statistic.class);
+
+    static final boolean HAS_SWAP_HANDS_EVENT = hasClass("org.bukkit.event.player.PlayerSwapHandItemsEvent");
+
+    static final boolean HAS_ENTITY_PICKUP_EVENT = hasClass("org.bukkit.event.entity.EntityPickupItemEvent");
+
+    static final boolean HAS_DISPENSE_ARMOR_EVENT = hasClass("org.bukkit.event.block.BlockDispenseArmorEvent");
+
+    static final boolean HAS_LOCALE_CHANGE_EVENT = hasClass("org.bukkit.event.player.PlayerLocaleChangeEvent");
+
+    @SuppressWarnings("deprecation")
+    private static final Function<PlayerInventory, ItemStack> MAIN_HAND = hasMethod(PlayerInventory.class, "getItemInMainHand")
+            ? PlayerInventory::getItemInMainHand
+            : PlayerInventory::getItemInHand;
+
+    // biomes were an enum until 1.21.3, calling name() on one through the interface of newer APIs would fail
+    private static final Function<Block, String> BIOME = Biome.class.isEnum()
+            ? block -> String.valueOf(block.getBiome())
+            : block -> block.getBiome().name();
+
+    private Capabilities() { }
+
+    /**
+     * Probes the server, called from {@link PlayerExpansion#register()} so it doesn't happen on a request.
+     */
+    static void init() {
+        // loading the class is all it takes
+    }
+
+    static ItemStack itemInMainHand(final PlayerInventory inventory) {
+        return MAIN_HAND.apply(inventory);
+    }
+
+    static String biome(final Block block) {
+        return BIOME.apply(block);
+    }
+
+    private static boolean hasClass(final String name) {
+        try {
+            Class.forName(name, false, Capabilities.class.getClassLoader());
+            return true;
+        } catch (final ClassNotFoundException ex) {
+            return false;
+        }
+    }
+
+    private static boolean hasMethod(final Class<?> type, final String name, final Class<?>... parameters) {
+        try {
+            type.getMethod(name, parameters);
+            return true;
+        } catch (final NoSuchMethodException ex) {
+            return false;
+        }
+    }
+}
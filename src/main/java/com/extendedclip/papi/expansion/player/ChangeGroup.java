@@ -0,0 +1,88 @@
+package com.extendedclip.papi.expansion.player;
+
+/**
+ * Placeholders that change together, tracked with one version per player.
+ */
+public enum ChangeGroup {
+
+    POSITION,
+    HEALTH,
+    INVENTORY,
+    EXPERIENCE,
+    WORLD_TIME,
+    PING;
+
+    /**
+     * @return The group of an identifier, or null if its changes are not tracked
+     */
+    public static ChangeGroup of(final String identifier) {
+        if (identifier.startsWith("item_in_hand_level_") || identifier.startsWith("item_in_offhand_level_")) {
+            return INVENTORY;
+        }
+
+        switch (identifier) {
+            case "x":
+            case "y":
+            case "z":
+            case "x_long":
+            case "y_long":
+            case "z_long":
+            case "yaw":
+            case "pitch":
+            case "direction":
+            case "direction_xz":
+            case "world":
+            case "world_type":
+            case "biome":
+            case "biome_capitalized":
+                return POSITION;
+            case "health":
+            case "health_rounded":
+            case "max_health":
+            case "max_health_rounded":
+            case "health_scale":
+            case "health_boost":
+            case "absorption":
+            case "food_level":
+            case "saturation":
+                return HEALTH;
+            case "has_empty_slot":
+            case "empty_slots":
+            case "item_in_hand":
+            case "item_in_hand_name":
+            case "item_in_hand_data":
+            case "item_in_hand_durability":
+            case "item_in_offhand":
+            case "item_in_offhand_name":
+            case "item_in_offhand_data":
+            case "item_in_offhand_durability":
+            case "armor_helmet_name":
+            case "armor_helmet_data":
+            case "armor_helmet_durability":
+            case "armor_chestplate_name":
+            case "armor_chestplate_data":
+            case "armor_chestplate_durability":
+            case "armor_leggings_name":
+            case "armor_leggings_data":
+            case "armor_leggings_durability":
+            case "armor_boots_name":
+            case "armor_boots_data":
+            case "armor_boots_durability":
+                return INVENTORY;
+            case "exp":
+            case "current_exp":
+            case "total_exp":
+            case "exp_to_level":
+            case "level":
+                return EXPERIENCE;
+            case "world_time_12":
+            case "world_time_24":
+                return WORLD_TIME;
+            case "ping":
+            case "colored_ping":
+                return PING;
+            default:
+                return null;
+        }
+    }
+}
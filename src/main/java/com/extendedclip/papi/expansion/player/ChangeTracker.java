@@ -0,0 +1,177 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Versions of each {@link ChangeGroup} per player, so consumers can skip re-rendering placeholders that did not
+ * change. Versions come from one shared clock: a group has changed since version {@code v} if its version is greater.
+ * <p>
+ * Groups are bumped by diffing the player once per tick on the thread that owns them, and by events for state that is
+ * too costly to diff (the inventory). Events fire before the change is applied, so a group bumped by an event is
+ * bumped again by the next diff to cover the applied change.
+ */
+public final class ChangeTracker {
+
+    private static final int GROUPS = ChangeGroup.values().length;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<UUID, Versions> players = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+        players.clear();
+    }
+
+    /**
+     * @return The current version, to pass to {@link #changedSince(UUID, ChangeGroup, long)} next time
+     */
+    public long getVersion() {
+        return clock.get();
+    }
+
+    /**
+     * @return Whether the group changed after the given version, true for players that are not tracked
+     */
+    public boolean changedSince(final UUID uuid, final ChangeGroup group, final long version) {
+        final Versions versions = players.get(uuid);
+        return versions == null || versions.versions.get(group.ordinal()) > version;
+    }
+
+    /**
+     * Bumps a group now and again on the next diff, for events that fire before the change is applied.
+     */
+    public void bump(final UUID uuid, final ChangeGroup group) {
+        final Versions versions = players.get(uuid);
+        if (versions != null) {
+            versions.versions.set(group.ordinal(), clock.incrementAndGet());
+            versions.pending.getAndUpdate(mask -> mask | 1 << group.ordinal());
+        }
+    }
+
+    /**
+     * Compares the player with the previous diff and bumps whatever changed, called each tick from the thread owning
+     * the player.
+     *
+     * @param ping The ping as the ping placeholders currently show it
+     */
+    public void diff(final Player player, final int ping) {
+        Versions versions = players.get(player.getUniqueId());
+        if (versions == null) {
+            versions = new Versions();
+            players.put(player.getUniqueId(), versions);
+        }
+        versions.diff(player, ping);
+
+        final int pending = versions.pending.getAndSet(0);
+        for (int group = 0; group < GROUPS; group++) {
+            if ((pending & 1 << group) != 0) {
+                versions.bump(group);
+            }
+        }
+    }
+
+    public void remove(final UUID uuid) {
+        players.remove(uuid);
+    }
+
+    public void clear() {
+        players.clear();
+    }
+
+    private final class Versions {
+
+        private final AtomicLongArray versions = new AtomicLongArray(GROUPS);
+        private final AtomicInteger pending = new AtomicInteger();
+
+        // the last diffed state, only touched by the diffing thread
+        private boolean diffed;
+        private World world;
+        private double x;
+        private double y;
+        private double z;
+        private float yaw;
+        private float pitch;
+        private double health;
+        private double maxHealth;
+        private double healthScale;
+        private double absorption;
+        private int food;
+        private float saturation;
+        private int level;
+        private float exp;
+        private int totalExperience;
+        private int minuteOfDay;
+        private int ping;
+
+        private void bump(final int group) {
+            versions.set(group, clock.incrementAndGet());
+        }
+
+        private void diff(final Player player, final int currentPing) {
+            final Location location = player.getLocation();
+            final World currentWorld = location.getWorld();
+            if (!diffed || currentWorld != world || location.getX() != x || location.getY() != y || location.getZ() != z
+                    || location.getYaw() != yaw || location.getPitch() != pitch) {
+                world = currentWorld;
+                x = location.getX();
+                y = location.getY();
+                z = location.getZ();
+                yaw = location.getYaw();
+                pitch = location.getPitch();
+                bump(ChangeGroup.POSITION.ordinal());
+            }
+
+            final double currentAbsorption = Capabilities.HAS_ABSORPTION ? player.getAbsorptionAmount() : 0;
+            if (!diffed || player.getHealth() != health || player.getMaxHealth() != maxHealth
+                    || player.getHealthScale() != healthScale || currentAbsorption != absorption
+                    || player.getFoodLevel() != food || player.getSaturation() != saturation) {
+                health = player.getHealth();
+                maxHealth = player.getMaxHealth();
+                healthScale = player.getHealthScale();
+                absorption = currentAbsorption;
+                food = player.getFoodLevel();
+                saturation = player.getSaturation();
+                bump(ChangeGroup.HEALTH.ordinal());
+            }
+
+            if (!diffed || player.getLevel() != level || player.getExp() != exp || player.getTotalExperience() != totalExperience) {
+                level = player.getLevel();
+                exp = player.getExp();
+                totalExperience = player.getTotalExperience();
+                bump(ChangeGroup.EXPERIENCE.ordinal());
+            }
+
+            // the time placeholders show minutes, the world time itself changes every tick
+            final int currentMinute = currentWorld == null ? 0 : TimeTable.minuteOfDay(currentWorld.getTime());
+            if (!diffed || currentMinute != minuteOfDay) {
+                minuteOfDay = currentMinute;
+                bump(ChangeGroup.WORLD_TIME.ordinal());
+            }
+
+            if (!diffed || currentPing != ping) {
+                ping = currentPing;
+                bump(ChangeGroup.PING.ordinal());
+            }
+
+            if (!diffed) {
+                bump(ChangeGroup.INVENTORY.ordinal());
+                diffed = true;
+            }
+        }
+    }
+}
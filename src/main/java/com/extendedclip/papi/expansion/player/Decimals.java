@@ -0,0 +1,98 @@
+package com.extendedclip.papi.expansion.player;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Formats doubles with a fixed number of decimal places, rounding half up from the shortest decimal form of the value
+ * like {@link BigDecimal#valueOf(double)} and {@link String#format(String, Object...)} do, but without parsing a format
+ * string or allocating anything besides the result. Digits are written into a per-thread buffer from the right.
+ */
+public final class Decimals {
+
+    public static final int MAX_PLACES = 9;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    // above this a scaled value no longer holds every integer exactly, so the slow path takes over
+    private static final double MAX_SCALED = 1L << 53;
+    // how close to a tie the scaled value may be before its shortest decimal form could round the other way: half an
+    // ulp of the value scaled up, which is at most one ulp of the scaled value, plus the error of scaling it
+    private static final int TIE_ULPS = 2;
+
+    // sign, 19 digits of a long, the point and some slack
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[32]);
+
+    private Decimals() { }
+
+    /**
+     * @param places The number of decimal places, 0 to {@link #MAX_PLACES}
+     */
+    public static String format(final double value, final int places) {
+        if (places < 0 || places > MAX_PLACES) {
+            throw new IllegalArgumentException("places must be between 0 and " + MAX_PLACES + ", got " + places);
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return String.valueOf(value);
+        }
+
+        final double scaled = Math.abs(value) * POWERS_OF_TEN[places];
+        if (scaled >= MAX_SCALED) {
+            return slowFormat(value, places);
+        }
+
+        // exact, as both are below 2^53
+        long digits = (long) scaled;
+        final double fraction = scaled - digits;
+        // 1.005 is stored as 1.00499999999999989..., which has to round like the 1.005 it prints as
+        if (Math.abs(fraction - 0.5) <= TIE_ULPS * Math.ulp(scaled)) {
+            return slowFormat(value, places);
+        }
+        if (fraction > 0.5) {
+            digits++;
+        }
+        // no "-0.00" for values that round to zero
+        final boolean negative = value < 0 && digits != 0;
+
+        final char[] buffer = BUFFER.get();
+        int position = buffer.length;
+
+        for (int i = 0; i < places; i++) {
+            buffer[--position] = (char) ('0' + digits % 10);
+            digits /= 10;
+        }
+        if (places > 0) {
+            buffer[--position] = '.';
+        }
+        do {
+            buffer[--position] = (char) ('0' + digits % 10);
+            digits /= 10;
+        } while (digits != 0);
+
+        if (negative) {
+            buffer[--position] = '-';
+        }
+        return new String(buffer, position, buffer.length - position);
+    }
+
+    private static String slowFormat(final double value, final int places) {
+        return BigDecimal.valueOf(value).setScale(places, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    /**
+     * Splits an identifier such as {@code health_2dp} into its base identifier and number of places.
+     *
+     * @return The number of places, or -1 if the identifier has no valid precision suffix
+     */
+    static int places(final String identifier) {
+        final int length = identifier.length();
+        if (length < 5 || !identifier.endsWith("dp") || identifier.charAt(length - 4) != '_') {
+            return -1;
+        }
+
+        final int places = identifier.charAt(length - 3) - '0';
+        return places >= 0 && places <= MAX_PLACES ? places : -1;
+    }
+}
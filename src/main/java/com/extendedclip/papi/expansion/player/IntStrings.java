@@ -0,0 +1,39 @@
+package com.extendedclip.papi.expansion.player;
+
+/**
+ * Shared string forms of the small integers most placeholders return (coordinates, levels, ping, air, slots...),
+ * so rendering them does not allocate a new string on every request.
+ */
+public final class IntStrings {
+
+    public static final int MIN = -512;
+    public static final int MAX = 65535;
+
+    // filled lazily, racing threads at worst create the same immutable string twice
+    private static final String[] CACHE = new String[MAX - MIN + 1];
+
+    private static volatile boolean enabled = true;
+
+    private IntStrings() { }
+
+    /**
+     * @param enabled False to always allocate, for comparing allocation rates with and without the cache
+     */
+    public static void setEnabled(final boolean enabled) {
+        IntStrings.enabled = enabled;
+    }
+
+    public static String valueOf(final int value) {
+        if (value < MIN || value > MAX || !enabled) {
+            return String.valueOf(value);
+        }
+
+        final int index = value - MIN;
+        String string = CACHE[index];
+        if (string == null) {
+            string = String.valueOf(value);
+            CACHE[index] = string;
+        }
+        return string;
+    }
+}
@@ -0,0 +1,75 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps an {@link InventorySummary} per online player, rebuilt only after inventory events marked it dirty or once it
+ * reaches its maximum age, which catches changes no event reports (commands, plugins editing inventories).
+ */
+public final class InventorySummaries {
+
+    // most inventory events fire before the change is applied, so a dirty summary is rebuilt until the next tick
+    private static final long DIRTY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+    private volatile long maxAgeNanos;
+
+    /**
+     * @param maxAge How long a summary is trusted without events, in ticks
+     */
+    public void configure(final boolean enabled, final int maxAge) {
+        this.enabled = enabled;
+        this.maxAgeNanos = PlayerUtil.ticksToNanos(maxAge);
+        entries.clear();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public InventorySummary of(final Player player, final PlayerSnapshot snapshot) {
+        final long now = System.nanoTime();
+        final Entry entry = entries.get(player.getUniqueId());
+        if (entry != null && now - entry.dirtyUntil >= 0 && now - entry.built < maxAgeNanos) {
+            return entry.summary;
+        }
+
+        final InventorySummary summary = InventorySummary.of(player, snapshot);
+        // keeps a dirty mark set while rebuilding, the event may have come after the inventory was read
+        entries.compute(player.getUniqueId(), (uuid, current) -> new Entry(summary, now, current == null ? now : current.dirtyUntil));
+        return summary;
+    }
+
+    public void markDirty(final UUID uuid) {
+        final long dirtyUntil = System.nanoTime() + DIRTY_NANOS;
+        entries.computeIfPresent(uuid, (key, entry) -> new Entry(entry.summary, entry.built, dirtyUntil));
+    }
+
+    public void remove(final UUID uuid) {
+        entries.remove(uuid);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private static final class Entry {
+
+        private final InventorySummary summary;
+        private final long built;
+        private final long dirtyUntil;
+
+        private Entry(final InventorySummary summary, final long built, final long dirtyUntil) {
+            this.summary = summary;
+            this.built = built;
+            this.dirtyUntil = dirtyUntil;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+/**
+ * The rendered inventory placeholders of a player, computed in one pass over the inventory so reading them does not
+ * copy the contents or clone item meta.
+ */
+public final class InventorySummary {
+
+    private final int emptySlots;
+    private final boolean hasEmptySlot;
+    private final Item mainHand;
+    private final Item offHand;
+    private final Item helmet;
+    private final Item chestplate;
+    private final Item leggings;
+    private final Item boots;
+
+    private InventorySummary(final Player player, final PlayerSnapshot snapshot) {
+        this.emptySlots = snapshot.getEmptySlots(player);
+        this.hasEmptySlot = snapshot.hasEmptySlot(player);
+        this.mainHand = new Item(snapshot.getItemInMainHand(player));
+        this.offHand = new Item(snapshot.getItemInOffHand(player));
+        this.helmet = new Item(snapshot.getHelmet(player));
+        this.chestplate = new Item(snapshot.getChestplate(player));
+        this.leggings = new Item(snapshot.getLeggings(player));
+        this.boots = new Item(snapshot.getBoots(player));
+    }
+
+    /**
+     * Builds the summary from what the snapshot read, so captured snapshots never touch the live inventory.
+     */
+    public static InventorySummary of(final Player player, final PlayerSnapshot snapshot) {
+        return new InventorySummary(player, snapshot);
+    }
+
+    public int getEmptySlots() {
+        return emptySlots;
+    }
+
+    public boolean hasEmptySlot() {
+        return hasEmptySlot;
+    }
+
+    public Item getMainHand() {
+        return mainHand;
+    }
+
+    public Item getOffHand() {
+        return offHand;
+    }
+
+    public Item getHelmet() {
+        return helmet;
+    }
+
+    public Item getChestplate() {
+        return chestplate;
+    }
+
+    public Item getLeggings() {
+        return leggings;
+    }
+
+    public Item getBoots() {
+        return boots;
+    }
+
+    /**
+     * The rendered type, name, data and durability of one slot.
+     */
+    public static final class Item {
+
+        private final String type;
+        private final String name;
+        private final String data;
+        private final String durability;
+
+        private Item(final ItemStack item) {
+            final boolean present = item != null && item.getType() != Material.AIR;
+            this.type = item == null ? String.valueOf(Material.AIR) : String.valueOf(item.getType());
+            this.name = present ? displayName(item) : "";
+            this.data = present ? IntStrings.valueOf(item.getDurability()) : "0";
+            this.durability = IntStrings.valueOf(PlayerUtil.durability(item));
+        }
+
+        private static String displayName(final ItemStack item) {
+            // the one getItemMeta() clone per rebuild
+            final ItemMeta meta = item.getItemMeta();
+            return meta != null && meta.hasDisplayName() ? meta.getDisplayName() : "";
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getData() {
+            return data;
+        }
+
+        public String getDurability() {
+            return durability;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.extendedclip.papi.expansion.player;
+
+import me.clip.placeholderapi.PlaceholderAPIPlugin;
+
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The formatted first and last join dates of each player, formatted again only when the date changes (on login) or
+ * PlaceholderAPI's date format is replaced by a reload. Relative forms ("3d ago") change once per minute.
+ */
+public final class JoinDates {
+
+    private static final int MAX_SIZE = 4096;
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    public String formatFirst(final UUID uuid, final long epoch) {
+        return entry(uuid).first.format(epoch);
+    }
+
+    public String formatLast(final UUID uuid, final long epoch) {
+        return entry(uuid).last.format(epoch);
+    }
+
+    public String firstAgo(final UUID uuid, final long epoch) {
+        return entry(uuid).first.ago(epoch, System.currentTimeMillis());
+    }
+
+    public String lastAgo(final UUID uuid, final long epoch) {
+        return entry(uuid).last.ago(epoch, System.currentTimeMillis());
+    }
+
+    public void remove(final UUID uuid) {
+        entries.remove(uuid);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private Entry entry(final UUID uuid) {
+        Entry entry = entries.get(uuid);
+        if (entry == null) {
+            entry = new Entry();
+            // leaderboards can ask for any number of players, past the limit they are just not memoized
+            if (entries.size() < MAX_SIZE) {
+                final Entry raced = entries.putIfAbsent(uuid, entry);
+                if (raced != null) {
+                    entry = raced;
+                }
+            }
+        }
+        return entry;
+    }
+
+    static String ago(final long minutes) {
+        if (minutes < 60) {
+            return minutes + "m ago";
+        }
+        if (minutes < 24 * 60) {
+            return minutes / 60 + "h ago";
+        }
+        return minutes / (24 * 60) + "d ago";
+    }
+
+    private static final class Entry {
+
+        private final Slot first = new Slot();
+        private final Slot last = new Slot();
+    }
+
+    private static final class Slot {
+
+        private volatile Memo formatted;
+        private volatile Memo relative;
+
+        private String format(final long epoch) {
+            final String pattern = PlaceholderAPIPlugin.getInstance().getPlaceholderAPIConfig().dateFormat();
+            Memo memo = formatted;
+            if (memo == null || memo.epoch != epoch || !Objects.equals(pattern, memo.pattern)) {
+                // a new instance per call, so only this thread uses it
+                final DateFormat format = PlaceholderAPIPlugin.getDateFormat();
+                memo = new Memo(epoch, -1L, pattern, format.format(new Date(epoch)));
+                formatted = memo;
+            }
+            return memo.text;
+        }
+
+        private String ago(final long epoch, final long now) {
+            if (epoch <= 0L) {
+                return "";
+            }
+
+            final long minutes = Math.max(0L, (now - epoch) / MINUTE);
+            Memo memo = relative;
+            if (memo == null || memo.epoch != epoch || memo.minutes != minutes) {
+                memo = new Memo(epoch, minutes, null, JoinDates.ago(minutes));
+                relative = memo;
+            }
+            return memo.text;
+        }
+    }
+
+    private static final class Memo {
+
+        private final long epoch;
+        private final long minutes;
+        private final String pattern;
+        private final String text;
+
+        private Memo(final long epoch, final long minutes, final String pattern, final String text) {
+            this.epoch = epoch;
+            this.minutes = minutes;
+            this.pattern = pattern;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link LocaleInfo} of each online player, read once and then kept current by locale change events.
+ */
+public final class LocaleCache {
+
+    private final Map<UUID, LocaleInfo> locales = new ConcurrentHashMap<>();
+
+    public LocaleInfo get(final Player player) {
+        LocaleInfo info = locales.get(player.getUniqueId());
+        if (info == null) {
+            info = LocaleInfo.of(PlayerUtil.getLocale(player));
+            locales.put(player.getUniqueId(), info);
+        }
+        return info;
+    }
+
+    public void update(final Player player, final String locale) {
+        locales.put(player.getUniqueId(), LocaleInfo.of(locale));
+    }
+
+    public void remove(final UUID uuid) {
+        locales.remove(uuid);
+    }
+
+    public void clear() {
+        locales.clear();
+    }
+}
@@ -0,0 +1,68 @@
+package com.extendedclip.papi.expansion.player;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Everything the locale placeholders show for one client locale string, computed once per distinct locale.
+ */
+public final class LocaleInfo {
+
+    private static final int MAX_SIZE = 256;
+
+    private static final Map<String, LocaleInfo> KNOWN = new ConcurrentHashMap<>();
+
+    private final String locale;
+    private final String country;
+    private final String displayCountry;
+    private final String displayName;
+    private final String shortCode;
+
+    private LocaleInfo(final String locale) {
+        final Locale parsed = Locale.forLanguageTag(locale.replace("_", "-"));
+        final int separator = locale.indexOf('_');
+
+        this.locale = locale;
+        this.country = parsed.getCountry();
+        this.displayCountry = parsed.getDisplayCountry();
+        this.displayName = parsed.getDisplayName();
+        this.shortCode = separator == -1 ? locale : locale.substring(0, separator);
+    }
+
+    public static LocaleInfo of(final String locale) {
+        LocaleInfo info = KNOWN.get(locale);
+        if (info == null) {
+            info = new LocaleInfo(locale);
+
+            // clients send whatever locale string they like, so stop memoizing rather than growing without bound
+            if (KNOWN.size() < MAX_SIZE) {
+                final LocaleInfo raced = KNOWN.putIfAbsent(locale, info);
+                if (raced != null) {
+                    info = raced;
+                }
+            }
+        }
+        return info;
+    }
+
+    public String getLocale() {
+        return locale;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public String getDisplayCountry() {
+        return displayCountry;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getShortCode() {
+        return shortCode;
+    }
+}
@@ -0,0 +1,112 @@
+package com.extendedclip.papi.expansion.player;
+
+import me.clip.placeholderapi.PlaceholderAPIPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandMap;
+import org.bukkit.command.CommandSender;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * {@code /playermetrics [reset|dump]}, lists the identifier families that took the most time. Expansions have no
+ * plugin.yml to declare commands in, so it is registered straight into the server's command map.
+ */
+final class MetricsCommand extends Command {
+
+    private static final String FALLBACK_PREFIX = "playerexpansion";
+    private static final int SHOWN = 15;
+
+    private final ResolverMetrics metrics;
+    private final Runnable dump;
+    private CommandMap commandMap;
+
+    MetricsCommand(final ResolverMetrics metrics, final Runnable dump) {
+        super("playermetrics", "Shows placeholder request metrics of the player expansion", "/playermetrics [reset|dump]",
+                Collections.emptyList());
+        this.metrics = metrics;
+        this.dump = dump;
+        setPermission("placeholderapi.admin");
+    }
+
+    void register() {
+        try {
+            commandMap = (CommandMap) Bukkit.getServer().getClass().getMethod("getCommandMap").invoke(Bukkit.getServer());
+            commandMap.register(FALLBACK_PREFIX, this);
+        } catch (final ReflectiveOperationException | RuntimeException ex) {
+            PlaceholderAPIPlugin.getInstance().getLogger()
+                    .log(Level.WARNING, "Could not register /playermetrics, metrics are still written to the dump file", ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void unregister() {
+        if (commandMap == null) {
+            return;
+        }
+        unregister(commandMap);
+
+        // the command map has no removal API, so the aliases would otherwise keep pointing at this expansion
+        try {
+            Class<?> type = commandMap.getClass();
+            while (type != null) {
+                try {
+                    final Field field = type.getDeclaredField("knownCommands");
+                    field.setAccessible(true);
+                    ((Map<String, Command>) field.get(commandMap)).values().removeIf(command -> command == this);
+                    break;
+                } catch (final NoSuchFieldException ex) {
+                    type = type.getSuperclass();
+                }
+            }
+        } catch (final ReflectiveOperationException | RuntimeException ignored) {
+            // stays registered but answers that metrics are off
+        }
+        commandMap = null;
+    }
+
+    @Override
+    public boolean execute(final CommandSender sender, final String label, final String[] args) {
+        if (!testPermission(sender)) {
+            return true;
+        }
+        if (!metrics.isEnabled()) {
+            sender.sendMessage(ChatColor.RED + "Player expansion metrics are disabled.");
+            return true;
+        }
+
+        if (args.length > 0 && args[0].equalsIgnoreCase("reset")) {
+            metrics.reset();
+            sender.sendMessage(ChatColor.GREEN + "Player expansion metrics reset.");
+            return true;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("dump")) {
+            dump.run();
+            sender.sendMessage(ChatColor.GREEN + "Player expansion metrics written.");
+            return true;
+        }
+
+        final List<ResolverMetrics.Family> families = new ArrayList<>(metrics.getFamilies());
+        families.sort(Comparator.comparingLong(ResolverMetrics.Family::getTotalNanos).reversed());
+
+        sender.sendMessage(ChatColor.GOLD + "Placeholder families by total time (calls, async, p50, p99, total):");
+        for (final ResolverMetrics.Family family : families.subList(0, Math.min(SHOWN, families.size()))) {
+            sender.sendMessage(ChatColor.YELLOW + family.getName() + ChatColor.GRAY + " " + family.getCalls()
+                    + ", " + family.getAsyncCalls()
+                    + ", <" + micros(family.quantile(0.5)) + ", <" + micros(family.quantile(0.99))
+                    + ", " + family.getTotalNanos() / 1_000_000 + "ms");
+        }
+        return true;
+    }
+
+    private static String micros(final long nanos) {
+        return nanos < 1000 ? nanos + "ns" : nanos / 1000 + "us";
+    }
+}
@@ -0,0 +1,80 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.Location;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * The state of a player that may have to be read from disk (playerdata, ban list, whitelist), read once.
+ */
+public final class OfflineMetadata {
+
+    private final boolean playedBefore;
+    private final boolean whitelisted;
+    private final boolean banned;
+    private final boolean op;
+    private final long firstPlayed;
+    private final long lastPlayed;
+    private final String bedX;
+    private final String bedY;
+    private final String bedZ;
+    private final String bedWorld;
+
+    private OfflineMetadata(final OfflinePlayer player) {
+        this.playedBefore = player.hasPlayedBefore();
+        this.whitelisted = player.isWhitelisted();
+        this.banned = player.isBanned();
+        this.op = player.isOp();
+        this.firstPlayed = player.getFirstPlayed();
+        this.lastPlayed = player.getLastPlayed();
+
+        final Location bed = player.getBedSpawnLocation();
+        this.bedX = bed != null ? String.valueOf(bed.getX()) : "";
+        this.bedY = bed != null ? String.valueOf(bed.getY()) : "";
+        this.bedZ = bed != null ? String.valueOf(bed.getZ()) : "";
+        this.bedWorld = bed != null && bed.getWorld() != null ? bed.getWorld().getName() : "";
+    }
+
+    static OfflineMetadata read(final OfflinePlayer player) {
+        return new OfflineMetadata(player);
+    }
+
+    public boolean hasPlayedBefore() {
+        return playedBefore;
+    }
+
+    public boolean isWhitelisted() {
+        return whitelisted;
+    }
+
+    public boolean isBanned() {
+        return banned;
+    }
+
+    public boolean isOp() {
+        return op;
+    }
+
+    public long getFirstPlayed() {
+        return firstPlayed;
+    }
+
+    public long getLastPlayed() {
+        return lastPlayed;
+    }
+
+    public String getBedX() {
+        return bedX;
+    }
+
+    public String getBedY() {
+        return bedY;
+    }
+
+    public String getBedZ() {
+        return bedZ;
+    }
+
+    public String getBedWorld() {
+        return bedWorld;
+    }
+}
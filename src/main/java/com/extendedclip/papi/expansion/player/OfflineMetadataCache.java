@@ -0,0 +1,53 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.OfflinePlayer;
+
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * A bounded, least recently used cache of {@link OfflineMetadata} of offline players, read on the given executor.
+ * Until a player's metadata has been read it is unavailable; after that stale or invalidated metadata keeps being
+ * served while a refresh runs. Online players are never read here, as their state belongs to the thread owning them.
+ */
+public final class OfflineMetadataCache {
+
+    // they may have joined since the read was scheduled, and are then read live instead
+    private final RefreshingCache<OfflinePlayer, OfflineMetadata> cache = new RefreshingCache<>(
+            player -> player.isOnline() ? null : OfflineMetadata.read(player));
+
+    private volatile boolean enabled;
+
+    /**
+     * @param size The most players kept
+     * @param ttl How long metadata is served before it is refreshed, in ticks
+     * @param executor Runs the refreshes, off the main thread
+     */
+    public void configure(final boolean enabled, final int size, final int ttl, final Executor executor) {
+        this.enabled = enabled;
+        cache.configure(size, ttl, executor);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The metadata of an offline player, or null while it is being read for the first time or they are online
+     */
+    public OfflineMetadata get(final OfflinePlayer player) {
+        return player.isOnline() ? null : cache.get(player.getUniqueId(), player);
+    }
+
+    public void invalidate(final UUID uuid) {
+        cache.invalidate(uuid);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+}
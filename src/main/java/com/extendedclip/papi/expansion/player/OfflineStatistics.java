@@ -0,0 +1,190 @@
+package com.extendedclip.papi.expansion.player;
+
+import com.google.gson.stream.JsonReader;
+import me.clip.placeholderapi.PlaceholderAPIPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+
+/**
+ * Statistics of offline players, read from their stats file in the main world on the given executor and kept in a
+ * bounded, least recently used cache. The file is streamed and only the statistics requested so far are kept, so a
+ * leaderboard over thousands of players never builds their full JSON trees. Until a player's file has been read their
+ * statistics are unavailable; after that stale values keep being served while a refresh runs.
+ */
+public final class OfflineStatistics {
+
+    public static final int UNAVAILABLE = -1;
+
+    // more distinct statistics than any set of menus asks for, later ones stay unavailable
+    private static final int MAX_STATISTICS = 1024;
+
+    private final RefreshingCache<UUID, Map<StatisticKey, Integer>> cache = new RefreshingCache<>(this::load);
+    // every statistic requested so far, each read pulls all of them
+    private final Set<StatisticKey> requested = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean enabled;
+    private volatile File directory;
+
+    /**
+     * @param size The most players kept
+     * @param ttl How long statistics are served before they are read again, in ticks
+     * @param executor Runs the reads, off the main thread
+     */
+    public void configure(final boolean enabled, final int size, final int ttl, final Executor executor) {
+        this.enabled = enabled;
+        clear();
+        cache.configure(size, ttl, executor);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The value of the statistic, or {@link #UNAVAILABLE} while the player's stats file is being read
+     */
+    public int get(final UUID uuid, final StatisticKey statistic) {
+        if (statistic.getCategory() == null) {
+            return 0;
+        }
+        if (!requested.contains(statistic)) {
+            if (requested.size() >= MAX_STATISTICS) {
+                return UNAVAILABLE;
+            }
+            requested.add(statistic);
+        }
+
+        final Map<StatisticKey, Integer> values = cache.get(uuid, uuid);
+        final Integer value = values == null ? null : values.get(statistic);
+        if (value == null) {
+            // a statistic first requested after the last read stays unavailable until the next one
+            cache.refresh(uuid, uuid);
+            return UNAVAILABLE;
+        }
+        return value;
+    }
+
+    /**
+     * Marks the player's statistics stale, for example once they quit and the server saved their file.
+     */
+    public void invalidate(final UUID uuid) {
+        cache.invalidate(uuid);
+    }
+
+    public void clear() {
+        cache.clear();
+        requested.clear();
+        directory = null;
+    }
+
+    /**
+     * Reads every statistic requested so far from the player's stats file, on the executor.
+     */
+    private Map<StatisticKey, Integer> load(final UUID uuid) {
+        try {
+            return Collections.unmodifiableMap(read(file(uuid), new ArrayList<>(requested)));
+        } catch (final IOException | RuntimeException ex) {
+            PlaceholderAPIPlugin.getInstance()
+                    .getLogger()
+                    .log(Level.WARNING, "Could not read the statistics of " + uuid, ex);
+            return null;
+        }
+    }
+
+    private File file(final UUID uuid) {
+        File directory = this.directory;
+        if (directory == null) {
+            final List<World> worlds = Bukkit.getWorlds();
+            if (worlds.isEmpty()) {
+                throw new IllegalStateException("No world is loaded yet");
+            }
+            directory = new File(worlds.get(0).getWorldFolder(), "stats");
+            this.directory = directory;
+        }
+        return new File(directory, uuid + ".json");
+    }
+
+    /**
+     * Streams a stats file, keeping only the given statistics. Statistics missing from the file, or the file itself,
+     * are 0.
+     */
+    static Map<StatisticKey, Integer> read(final File file, final Collection<StatisticKey> statistics) throws IOException {
+        // category -> name -> statistics kept under it
+        final Map<String, Map<String, List<StatisticKey>>> wanted = new HashMap<>();
+        final Map<StatisticKey, Integer> values = new HashMap<>();
+        for (final StatisticKey statistic : statistics) {
+            if (statistic.getCategory() == null || values.put(statistic, 0) != null) {
+                continue;
+            }
+            final Map<String, List<StatisticKey>> names = wanted.computeIfAbsent(statistic.getCategory(), category -> new HashMap<>());
+            for (final String name : statistic.getNames()) {
+                names.computeIfAbsent(name, key -> new ArrayList<>(1)).add(statistic);
+            }
+        }
+
+        final Reader in;
+        try {
+            in = new InputStreamReader(Files.newInputStream(file.toPath()), StandardCharsets.UTF_8);
+        } catch (final NoSuchFileException | FileNotFoundException ex) {
+            // never joined, or never did anything worth counting
+            return values;
+        }
+
+        try (final JsonReader reader = new JsonReader(in)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("stats")) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    final Map<String, List<StatisticKey>> names = wanted.get(reader.nextName());
+                    if (names == null) {
+                        reader.skipValue();
+                        continue;
+                    }
+
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        final List<StatisticKey> matches = names.get(reader.nextName());
+                        if (matches == null) {
+                            reader.skipValue();
+                            continue;
+                        }
+
+                        final int value = reader.nextInt();
+                        for (final StatisticKey statistic : matches) {
+                            values.merge(statistic, value, Integer::sum);
+                        }
+                    }
+                    reader.endObject();
+                }
+                reader.endObject();
+            }
+            reader.endObject();
+        }
+        return values;
+    }
+}
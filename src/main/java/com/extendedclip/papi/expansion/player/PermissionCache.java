@@ -0,0 +1,104 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the result of {@link Player#hasPermission(String)} per player and node. Each player's results belong to a
+ * generation that is replaced when their permissions may have changed (world change, rejoin, an explicit
+ * {@link #invalidate(UUID)}) or when it outlives the configured time to live.
+ */
+public final class PermissionCache {
+
+    private final Map<UUID, Generation> generations = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private volatile boolean enabled;
+    private volatile long ttlNanos;
+
+    /**
+     * @param ttl How long results are kept, in ticks
+     */
+    public void configure(final boolean enabled, final int ttl) {
+        this.enabled = enabled;
+        this.ttlNanos = PlayerUtil.ticksToNanos(ttl);
+        clear();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean hasPermission(final Player player, final String node) {
+        final long now = System.nanoTime();
+        Generation generation = generations.get(player.getUniqueId());
+        if (generation == null || now - generation.created >= ttlNanos) {
+            generation = next(player.getUniqueId(), generation, now);
+        }
+
+        final Boolean cached = generation.results.get(node);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        final boolean result = player.hasPermission(node);
+        // a generation that got replaced meanwhile is unreachable, so a stale result can't leak into the new one
+        generation.results.put(node, result);
+        return result;
+    }
+
+    /**
+     * Drops the cached results of a player, for permission plugins or other expansions that know they changed.
+     */
+    public void invalidate(final UUID uuid) {
+        final Generation generation = generations.get(uuid);
+        if (generation != null) {
+            next(uuid, generation, System.nanoTime());
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public void remove(final UUID uuid) {
+        generations.remove(uuid);
+    }
+
+    public void clear() {
+        generations.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+    private Generation next(final UUID uuid, final Generation previous, final long now) {
+        final Generation next = new Generation(now);
+        if (previous == null) {
+            final Generation raced = generations.putIfAbsent(uuid, next);
+            return raced == null ? next : raced;
+        }
+        // another thread may have bumped it first, in which case its generation is just as fresh
+        return generations.replace(uuid, previous, next) ? next : generations.getOrDefault(uuid, next);
+    }
+
+    private static final class Generation {
+
+        private final Map<String, Boolean> results = new ConcurrentHashMap<>();
+        private final long created;
+
+        private Generation(final long created) {
+            this.created = created;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.ChatColor;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Colored ping, compiled from the config into ascending thresholds with already translated color prefixes. A ping
+ * gets the color of the highest threshold it is above, or the lowest tier's color when it is above none.
+ */
+public final class PingColors {
+
+    private static final Pattern HEX = Pattern.compile("&#([0-9a-fA-F]{6})");
+    // most pings fall in here, so their colored strings are kept
+    private static final int CACHED = 1024;
+
+    private final int[] thresholds;
+    private final String[] prefixes;
+    private final String[] cache = new String[CACHED];
+
+    private PingColors(final int[] thresholds, final String[] prefixes) {
+        this.thresholds = thresholds;
+        this.prefixes = prefixes;
+    }
+
+    /**
+     * The three tiers of {@code ping_color} and {@code ping_value}.
+     */
+    public static PingColors legacy(final String low, final String medium, final String high, final int mediumValue, final int highValue) {
+        final Map<Integer, String> tiers = new TreeMap<>();
+        tiers.put(Integer.MIN_VALUE, low);
+        tiers.put(mediumValue, medium);
+        tiers.put(highValue, high);
+        return of(tiers);
+    }
+
+    /**
+     * @param tiers Colors by the ping they apply above, with {@code &} color codes and {@code &#RRGGBB} hex colors
+     */
+    public static PingColors of(final Map<Integer, String> tiers) {
+        final TreeMap<Integer, String> sorted = new TreeMap<>(tiers);
+        if (sorted.isEmpty()) {
+            return new PingColors(new int[0], new String[]{""});
+        }
+
+        // the lowest tier doubles as the color of pings at or below every threshold
+        final int[] thresholds = new int[sorted.size() - 1];
+        final String[] prefixes = new String[sorted.size()];
+        int i = 0;
+        for (final Map.Entry<Integer, String> tier : sorted.entrySet()) {
+            if (i > 0) {
+                thresholds[i - 1] = tier.getKey();
+            }
+            prefixes[i++] = translate(tier.getValue());
+        }
+        return new PingColors(thresholds, prefixes);
+    }
+
+    static String translate(final String colors) {
+        final Matcher matcher = HEX.matcher(colors);
+        final StringBuffer translated = new StringBuffer();
+        while (matcher.find()) {
+            final StringBuilder hex = new StringBuilder("&x");
+            for (final char digit : matcher.group(1).toCharArray()) {
+                hex.append('&').append(digit);
+            }
+            matcher.appendReplacement(translated, hex.toString());
+        }
+        matcher.appendTail(translated);
+        return ChatColor.translateAlternateColorCodes('&', translated.toString());
+    }
+
+    public String format(final int ping) {
+        if (ping < 0 || ping >= CACHED) {
+            return prefix(ping) + ping;
+        }
+
+        String colored = cache[ping];
+        if (colored == null) {
+            colored = prefix(ping) + ping;
+            cache[ping] = colored;
+        }
+        return colored;
+    }
+
+    String prefix(final int ping) {
+        // the number of thresholds the ping is above
+        int low = 0;
+        int high = thresholds.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (thresholds[mid] < ping) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return prefixes[low];
+    }
+}
@@ -0,0 +1,99 @@
+package com.extendedclip.papi.expansion.player;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size ring buffer of ping samples for one player. Recording never allocates; readers get a consistent view
+ * because every method holds the buffer's lock.
+ */
+public final class PingHistory {
+
+    private final int[] samples;
+    private final int[] sorted;
+
+    private int next;
+    private int count;
+
+    public PingHistory(final int size) {
+        this.samples = new int[size];
+        this.sorted = new int[size];
+    }
+
+    public synchronized void record(final int ping) {
+        samples[next] = ping;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return count == 0;
+    }
+
+    public synchronized int last() {
+        return count == 0 ? 0 : samples[(next - 1 + samples.length) % samples.length];
+    }
+
+    public synchronized int average() {
+        if (count == 0) {
+            return 0;
+        }
+
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += samples[i];
+        }
+        return (int) Math.round((double) sum / count);
+    }
+
+    public synchronized int min() {
+        int min = count == 0 ? 0 : Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            min = Math.min(min, samples[i]);
+        }
+        return min;
+    }
+
+    public synchronized int max() {
+        int max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+
+    /**
+     * @return The mean absolute difference between consecutive samples
+     */
+    public synchronized int jitter() {
+        if (count < 2) {
+            return 0;
+        }
+
+        final int oldest = count < samples.length ? 0 : next;
+        long sum = 0;
+        int previous = samples[oldest];
+        for (int i = 1; i < count; i++) {
+            final int current = samples[(oldest + i) % samples.length];
+            sum += Math.abs(current - previous);
+            previous = current;
+        }
+        return (int) Math.round((double) sum / (count - 1));
+    }
+
+    /**
+     * @param percentile The percentile, between 0 and 100
+     * @return The nearest-rank percentile of the samples
+     */
+    public synchronized int percentile(final int percentile) {
+        if (count == 0) {
+            return 0;
+        }
+
+        System.arraycopy(samples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        final int rank = (int) Math.ceil(percentile / 100d * count);
+        return sorted[Math.max(0, Math.min(count, rank) - 1)];
+    }
+}
@@ -0,0 +1,82 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Periodically samples the ping of every online player into a {@link PingHistory}, so placeholders can show smoothed
+ * values and statistics instead of the raw, jumpy ping.
+ */
+public final class PingSampler implements Runnable {
+
+    private final Map<UUID, PingHistory> histories = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+    private volatile boolean useLastSample;
+    private int interval;
+    private int window;
+
+    public void configure(final boolean enabled, final boolean useLastSample, final int interval, final int window) {
+        this.enabled = enabled;
+        this.useLastSample = useLastSample;
+        this.interval = Math.max(1, interval);
+        this.window = Math.max(1, window);
+        histories.clear();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The sampling interval in ticks
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    @Override
+    public void run() {
+        for (final Player player : Bukkit.getOnlinePlayers()) {
+            PingHistory history = histories.get(player.getUniqueId());
+            if (history == null) {
+                history = new PingHistory(window);
+                histories.put(player.getUniqueId(), history);
+            }
+            history.record(PlayerUtil.getPing(player));
+        }
+    }
+
+    /**
+     * @return The samples of the player, or null if none were taken yet
+     */
+    public PingHistory history(final Player player) {
+        final PingHistory history = histories.get(player.getUniqueId());
+        return history == null || history.isEmpty() ? null : history;
+    }
+
+    /**
+     * @return The ping to show for the player, the last sample if configured so and available
+     */
+    public int ping(final Player player) {
+        if (enabled && useLastSample) {
+            final PingHistory history = history(player);
+            if (history != null) {
+                return history.last();
+            }
+        }
+        return PlayerUtil.getPing(player);
+    }
+
+    public void remove(final UUID uuid) {
+        histories.remove(uuid);
+    }
+
+    public void clear() {
+        histories.clear();
+    }
+}
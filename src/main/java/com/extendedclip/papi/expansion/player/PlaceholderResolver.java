@@ -0,0 +1,32 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+
+/**
+ * A placeholder identifier compiled once into the accessor that serves it.
+ * Resolvers are stateless and may be shared between threads and players.
+ */
+@FunctionalInterface
+interface PlaceholderResolver {
+
+    String resolve(OfflinePlayer player);
+
+    /**
+     * Accessor for placeholders that need the player to be online.
+     */
+    @FunctionalInterface
+    interface Online {
+
+        String resolve(Player player, PlayerSnapshot snapshot);
+    }
+
+    /**
+     * Accessor for the numeric value behind a placeholder that has precision-suffixed variants.
+     */
+    @FunctionalInterface
+    interface Decimal {
+
+        double resolve(Player player, PlayerSnapshot snapshot);
+    }
+}
@@ -0,0 +1,114 @@
+package com.extendedclip.papi.expansion.player;
+
+import me.clip.placeholderapi.PlaceholderAPIPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Ping and locale accessors, resolved once into method handles. The public {@link Player} API is used whenever the
+ * server has it, older servers fall back to the fields of the server player. If neither resolves the accessor serves
+ * a fixed fallback value instead of failing on every request. Failing calls serve the fallback value as well and are
+ * logged once per kind of failure, a broken accessor would otherwise log on every request.
+ */
+final class PlayerAccessors {
+
+    static final int FALLBACK_PING = -1;
+    static final String FALLBACK_LOCALE = "en_US";
+
+    // (Player)int and (Player)String, or null if they could not be resolved
+    private static final MethodHandle PING = resolve("getPing", "ping", int.class);
+    private static final MethodHandle LOCALE = resolve("getLocale", "locale", String.class);
+
+    // the exception types each accessor failed with so far
+    private static final Set<Class<?>> PING_FAILURES = ConcurrentHashMap.newKeySet();
+    private static final Set<Class<?>> LOCALE_FAILURES = ConcurrentHashMap.newKeySet();
+
+    private PlayerAccessors() { }
+
+    /**
+     * Resolves the accessors, called from {@link PlayerExpansion#register()} so it doesn't happen on a request.
+     */
+    static void init() {
+        // loading the class is all it takes
+    }
+
+    static int ping(final Player player) {
+        if (PING == null) {
+            return FALLBACK_PING;
+        }
+
+        try {
+            return (int) PING.invokeExact(player);
+        } catch (final Throwable ex) {
+            if (PING_FAILURES.add(ex.getClass())) {
+                PlaceholderAPIPlugin.getInstance()
+                        .getLogger()
+                        .log(Level.WARNING, "Could not get the ping of " + player.getName() + ", using " + FALLBACK_PING
+                                + " as fallback value, further failures like this are not logged", ex);
+            }
+            return FALLBACK_PING;
+        }
+    }
+
+    static String locale(final Player player) {
+        if (LOCALE == null) {
+            return FALLBACK_LOCALE;
+        }
+
+        try {
+            return (String) LOCALE.invokeExact(player);
+        } catch (final Throwable ex) {
+            if (LOCALE_FAILURES.add(ex.getClass())) {
+                PlaceholderAPIPlugin.getInstance()
+                        .getLogger()
+                        .log(Level.WARNING, "Could not get the locale of " + player.getName() + ", using '" + FALLBACK_LOCALE
+                                + "' as fallback value, further failures like this are not logged", ex);
+            }
+            return FALLBACK_LOCALE;
+        }
+    }
+
+    private static MethodHandle resolve(final String method, final String field, final Class<?> type) {
+        final MethodType accessorType = MethodType.methodType(type, Player.class);
+        try {
+            return MethodHandles.publicLookup().findVirtual(Player.class, method, MethodType.methodType(type));
+        } catch (final NoSuchMethodException | IllegalAccessException ignored) {
+            // the server predates the API method
+        }
+
+        try {
+            final Class<?> craftPlayer = Class.forName(Bukkit.getServer().getClass().getPackage().getName() + ".entity.CraftPlayer");
+            final Method getHandle = craftPlayer.getMethod("getHandle");
+            final Field handleField = findField(getHandle.getReturnType(), field);
+            handleField.setAccessible(true);
+
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final MethodHandle handle = lookup.unreflect(getHandle);
+            final MethodHandle getter = lookup.unreflectGetter(handleField)
+                    .asType(MethodType.methodType(type, getHandle.getReturnType()));
+            return MethodHandles.filterReturnValue(handle, getter).asType(accessorType);
+        } catch (final ReflectiveOperationException | RuntimeException ex) {
+            PlaceholderAPIPlugin.getInstance()
+                    .getLogger()
+                    .log(Level.WARNING, "Could not resolve the player " + field + ", using a fallback value for it", ex);
+            return null;
+        }
+    }
+
+    private static Field findField(final Class<?> type, final String name) throws NoSuchFieldException {
+        try {
+            return type.getDeclaredField(name);
+        } catch (final NoSuchFieldException ex) {
+            return type.getField(name);
+        }
+    }
+}
@@ -24,34 +24,93 @@ package com.extendedclip.papi.expansion.player;
 import me.clip.placeholderapi.PlaceholderAPIPlugin;
 import me.clip.placeholderapi.expansion.Configurable;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
+import me.clip.placeholderapi.expansion.Taskable;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerBedEnterEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemConsumeEvent;
+import org.bukkit.event.player.PlayerItemDamageEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.server.ServerCommandEvent;
 import org.bukkit.potion.PotionEffectType;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.DateTimeException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Level;
+
 import static com.extendedclip.papi.expansion.player.PlayerUtil.durability;
 import static com.extendedclip.papi.expansion.player.PlayerUtil.format12;
 import static com.extendedclip.papi.expansion.player.PlayerUtil.format24;
-import static com.extendedclip.papi.expansion.player.PlayerUtil.getBiome;
-import static com.extendedclip.papi.expansion.player.PlayerUtil.getCapitalizedBiome;
-import static com.extendedclip.papi.expansion.player.PlayerUtil.getEmptySlots;
+import static com.extendedclip.papi.expansion.player.PlayerUtil.capitalizeBiome;
 import static com.extendedclip.papi.expansion.player.PlayerUtil.getDirection;
 import static com.extendedclip.papi.expansion.player.PlayerUtil.getTotalExperience;
 import static com.extendedclip.papi.expansion.player.PlayerUtil.getXZDirection;
-import static com.extendedclip.papi.expansion.player.PlayerUtil.itemInHand;
 
-public final class PlayerExpansion extends PlaceholderExpansion implements Configurable {
-    private String low;
-    private String medium;
-    private String high;
+public final class PlayerExpansion extends PlaceholderExpansion implements Configurable, Taskable, Listener {
+    private static final int MAX_CACHED_RESOLVERS = 4096;
+    // a join time the offline cache is still reading
+    private static final long UNAVAILABLE = -1L;
+
+    private final Map<String, PlaceholderResolver> resolvers = new ConcurrentHashMap<>();
+    private final BlockCache blocks = new BlockCache();
+    private final PlayerSnapshots snapshots = new PlayerSnapshots(blocks);
+    private final PingSampler pingSampler = new PingSampler();
+    private final PlayerIndex playerIndex = new PlayerIndex();
+    private final LocaleCache localeCache = new LocaleCache();
+    private final PermissionCache permissionCache = new PermissionCache();
+    private final InventorySummaries inventories = new InventorySummaries();
+    private final ResolverMetrics metrics = new ResolverMetrics();
+    private final OfflineMetadataCache offlineCache = new OfflineMetadataCache();
+    private final OfflineStatistics offlineStatistics = new OfflineStatistics();
+    private final JoinDates joinDates = new JoinDates();
+    private final ChangeTracker changes = new ChangeTracker();
+    private final ArgumentCache<ChangeGroup> changeGroups = new ArgumentCache<>(ChangeGroup::of);
+    private final ArgumentCache<PotionEffectType> potionEffects = new ArgumentCache<>(PlayerUtil::potionEffect);
+    private final ArgumentCache<Enchantment> enchantments = new ArgumentCache<>(PlayerUtil::enchantment);
+    private final ArgumentCache<StatisticKey> statistics = new ArgumentCache<>(StatisticKey::parse);
+
+    private final Map<UUID, TaskScheduler.Task> playerTasks = new ConcurrentHashMap<>();
+    // listeners for events older servers lack, registered by start()
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private TaskScheduler scheduler = new BukkitTaskScheduler();
+    private TaskScheduler.Task tickTask;
+    private TaskScheduler.Task pingTask;
+    private TaskScheduler.Task dumpTask;
+    private TaskScheduler.Task changesTask;
+    private MetricsCommand metricsCommand;
 
-    private int mediumValue;
-    private int highValue;
+    private PingColors pingColors;
 
     private String north;
     private String northEast;
@@ -62,6 +121,14 @@ public final class PlayerExpansion extends PlaceholderExpansion implements Confi
     private String west;
     private String northWest;
 
+    private TimeTable customTime;
+
+    private int metricsDumpInterval;
+    private String metricsDumpFile;
+
+    private String booleanTrue;
+    private String booleanFalse;
+
     @Override
     public String getIdentifier() {
         return "player";
@@ -93,395 +160,1167 @@ public final class PlayerExpansion extends PlaceholderExpansion implements Confi
         defaults.put("direction.south_west", "SW");
         defaults.put("direction.west", "W");
         defaults.put("direction.north_west", "NW");
+        defaults.put("world_time.custom_format", "HH:mm:ss");
+        defaults.put("cache.int_strings", true);
+        defaults.put("ping_sampler.enabled", false);
+        defaults.put("ping_sampler.interval", 20);
+        defaults.put("ping_sampler.window", 30);
+        defaults.put("ping_sampler.use_last_sample", false);
+        defaults.put("snapshot.enabled", false);
+        defaults.put("snapshot.async", false);
+        defaults.put("permission_cache.enabled", false);
+        defaults.put("permission_cache.ttl", 100);
+        defaults.put("inventory_summary.enabled", false);
+        defaults.put("inventory_summary.max_age", 20);
+        defaults.put("block_cache.enabled", false);
+        defaults.put("block_cache.max_age", 20);
+        defaults.put("offline_cache.enabled", false);
+        defaults.put("offline_cache.size", 1000);
+        defaults.put("offline_cache.ttl", 6000);
+        defaults.put("offline_statistics.enabled", false);
+        defaults.put("offline_statistics.size", 1000);
+        defaults.put("offline_statistics.ttl", 6000);
+        defaults.put("change_tracking.enabled", false);
+        defaults.put("metrics.enabled", false);
+        defaults.put("metrics.dump_interval", 1200);
+        defaults.put("metrics.dump_file", "player_metrics.prom");
         return defaults;
     }
 
     @Override
     public String onRequest(OfflinePlayer player, String identifier) {
+        final PlaceholderResolver resolver = resolver(identifier);
+        if (!metrics.isEnabled()) {
+            return resolver.resolve(player);
+        }
+
+        final long start = System.nanoTime();
+        try {
+            return resolver.resolve(player);
+        } finally {
+            metrics.record(identifier, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Resolves several identifiers for the same player, like a scoreboard or item lore asking for all its lines.
+     * The online checks and the player's state (location, world, inventory) are shared by the whole batch instead
+     * of being repeated for every identifier.
+     *
+     * @param player The player to resolve the identifiers for
+     * @param identifiers The identifiers, without the {@code player_} prefix
+     * @return The values in the order of the identifiers, null for identifiers this expansion does not know
+     */
+    public String[] onRequest(OfflinePlayer player, String[] identifiers) {
+        final String[] values = new String[identifiers.length];
+
+        Player online = null;
+        PlayerSnapshot snapshot = null;
+        boolean fetched = false;
+        final boolean metered = metrics.isEnabled();
+        for (int i = 0; i < identifiers.length; i++) {
+            final long start = metered ? System.nanoTime() : 0L;
+            final PlaceholderResolver resolver = resolver(identifiers[i]);
+            if (!(resolver instanceof OnlineResolver)) {
+                values[i] = resolver.resolve(player);
+            } else {
+                if (!fetched) {
+                    fetched = true;
+                    online = player != null && player.isOnline() ? player.getPlayer() : null;
+                    snapshot = online != null ? snapshots.ofBatch(online) : null;
+                }
+                values[i] = snapshot == null ? "" : ((OnlineResolver) resolver).accessor.resolve(online, snapshot);
+            }
+
+            if (metered) {
+                metrics.record(identifiers[i], System.nanoTime() - start);
+            }
+        }
+        return values;
+    }
+
+    private PlaceholderResolver resolver(String identifier) {
+        PlaceholderResolver resolver = resolvers.get(identifier);
+        if (resolver == null) {
+            resolver = compile(identifier);
+
+            // identifiers come from user input, so stop caching rather than growing without bound
+            if (resolvers.size() < MAX_CACHED_RESOLVERS) {
+                resolvers.putIfAbsent(identifier, resolver);
+            }
+        }
+        return resolver;
+    }
+
+    /**
+     * Compiles an identifier into the resolver that serves it, binding the argument of prefixed placeholders
+     * such as {@code has_permission_<perm>} so that later requests skip all string matching.
+     */
+    private PlaceholderResolver compile(String identifier) {
+        // these would otherwise be read as ping_<name>, so they only exist while the sampler runs
+        if (pingSampler.isEnabled()) {
+            final PlaceholderResolver.Online pingStatistic = compilePingStatistic(identifier);
+            if (pingStatistic != null) {
+                return online(pingStatistic);
+            }
+        }
 
         final boolean targetedPing = identifier.startsWith("ping_");
         final boolean targetedColoredPing = identifier.startsWith("colored_ping_");
         if (targetedPing || targetedColoredPing) {
-            final Player target = Bukkit.getPlayer(identifier.substring(targetedPing ? 5 : 13)); // yes, I know, magic value
+            final String name = PlayerIndex.key(identifier.substring(targetedPing ? 5 : 13)); // yes, I know, magic value
+            return player -> {
+                final Player target = playerIndex.get(name);
+                return target == null ? "0" : retrievePing(target, targetedColoredPing);
+            };
+        }
+
+        switch (identifier) {
+            case "permission_cache_hits":
+                return player -> String.valueOf(permissionCache.getHits());
+            case "permission_cache_misses":
+                return player -> String.valueOf(permissionCache.getMisses());
+        }
+
+        if (identifier.startsWith("statistic_")) {
+            final StatisticKey statistic = statistics.get(identifier.substring(10));
+            if (statistic == null) {
+                return player -> player == null ? "" : "0";
+            }
+            return player -> player == null ? "" : statistic(player, statistic);
+        }
+
+        final PlaceholderResolver offline = compileOffline(identifier);
+        if (offline != null) {
+            return player -> player == null ? "" : offline.resolve(player);
+        }
+
+        return online(compileOnline(identifier));
+    }
+
+    /**
+     * Online players are read live, offline ones from their cached stats file while it is enabled, through the API
+     * otherwise.
+     */
+    private String statistic(final OfflinePlayer player, final StatisticKey statistic) {
+        final Player online = player.getPlayer();
+        if (online != null) {
+            return IntStrings.valueOf(statistic.get(online));
+        }
+        if (offlineStatistics.isEnabled()) {
+            final int value = offlineStatistics.get(player.getUniqueId(), statistic);
+            return value == OfflineStatistics.UNAVAILABLE ? "" : IntStrings.valueOf(value);
+        }
+        if (Capabilities.HAS_OFFLINE_STATISTICS) {
+            return IntStrings.valueOf(statistic.get(player));
+        }
+        return "";
+    }
+
+    /**
+     * Wraps an online accessor with the null/online checks every online placeholder shares.
+     */
+    private PlaceholderResolver online(final PlaceholderResolver.Online accessor) {
+        return new OnlineResolver(accessor);
+    }
+
+    /**
+     * Keeps the accessor reachable, so a batch can run it against the snapshot it shares.
+     */
+    private final class OnlineResolver implements PlaceholderResolver {
+
+        private final PlaceholderResolver.Online accessor;
+
+        private OnlineResolver(final PlaceholderResolver.Online accessor) {
+            this.accessor = accessor;
+        }
+
+        @Override
+        public String resolve(final OfflinePlayer player) {
+            if (player == null || !player.isOnline()) {
+                return "";
+            }
+
+            final Player p = player.getPlayer();
+            if (p == null) {
+                return "";
+            }
+
+            final PlayerSnapshot snapshot = snapshots.of(p);
+            return snapshot == null ? "" : accessor.resolve(p, snapshot);
+        }
+    }
+
+    /**
+     * Precision-suffixed variants such as {@code health_2dp}, formatted with a fixed number of decimal places.
+     */
+    private PlaceholderResolver.Online compileDecimal(String identifier) {
+        final int places = Decimals.places(identifier);
+        if (places == -1) {
+            return null;
+        }
+
+        final PlaceholderResolver.Decimal value = decimalValue(identifier.substring(0, identifier.length() - 4));
+        if (value == null) {
+            return null;
+        }
+        return (p, s) -> Decimals.format(value.resolve(p, s), places);
+    }
+
+    private PlaceholderResolver.Decimal decimalValue(String identifier) {
+        switch (identifier) {
+            case "health":
+                return (p, s) -> p.getHealth();
+            case "max_health":
+                return (p, s) -> p.getMaxHealth();
+            case "x_long":
+                return (p, s) -> s.getLocation(p).getX();
+            case "y_long":
+                return (p, s) -> s.getLocation(p).getY();
+            case "z_long":
+                return (p, s) -> s.getLocation(p).getZ();
+            case "yaw":
+                return (p, s) -> s.getLocation(p).getYaw();
+            case "pitch":
+                return (p, s) -> s.getLocation(p).getPitch();
+            case "exp":
+                return (p, s) -> p.getExp();
+            case "saturation":
+                return (p, s) -> p.getSaturation();
+            case "walk_speed":
+                return (p, s) -> p.getWalkSpeed();
+            case "fly_speed":
+                return (p, s) -> p.getFlySpeed();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Inventory placeholders served from the player's {@link InventorySummary}.
+     */
+    private PlaceholderResolver.Online compileInventory(String identifier) {
+        switch (identifier) {
+            case "has_empty_slot":
+                return (p, s) -> bool(inventories.of(p, s).hasEmptySlot());
+            case "empty_slots":
+                return (p, s) -> IntStrings.valueOf(inventories.of(p, s).getEmptySlots());
+            case "item_in_hand":
+                return (p, s) -> inventories.of(p, s).getMainHand().getType();
+            case "item_in_hand_name":
+                return (p, s) -> inventories.of(p, s).getMainHand().getName();
+            case "item_in_hand_data":
+                return (p, s) -> inventories.of(p, s).getMainHand().getData();
+            case "item_in_hand_durability":
+                return (p, s) -> inventories.of(p, s).getMainHand().getDurability();
+            case "item_in_offhand":
+                return (p, s) -> inventories.of(p, s).getOffHand().getType();
+            case "item_in_offhand_name":
+                return (p, s) -> inventories.of(p, s).getOffHand().getName();
+            case "item_in_offhand_data":
+                return (p, s) -> inventories.of(p, s).getOffHand().getData();
+            case "item_in_offhand_durability":
+                return (p, s) -> inventories.of(p, s).getOffHand().getDurability();
+            case "armor_helmet_name":
+                return (p, s) -> inventories.of(p, s).getHelmet().getName();
+            case "armor_helmet_data":
+                return (p, s) -> inventories.of(p, s).getHelmet().getData();
+            case "armor_helmet_durability":
+                return (p, s) -> inventories.of(p, s).getHelmet().getDurability();
+            case "armor_chestplate_name":
+                return (p, s) -> inventories.of(p, s).getChestplate().getName();
+            case "armor_chestplate_data":
+                return (p, s) -> inventories.of(p, s).getChestplate().getData();
+            case "armor_chestplate_durability":
+                return (p, s) -> inventories.of(p, s).getChestplate().getDurability();
+            case "armor_leggings_name":
+                return (p, s) -> inventories.of(p, s).getLeggings().getName();
+            case "armor_leggings_data":
+                return (p, s) -> inventories.of(p, s).getLeggings().getData();
+            case "armor_leggings_durability":
+                return (p, s) -> inventories.of(p, s).getLeggings().getDurability();
+            case "armor_boots_name":
+                return (p, s) -> inventories.of(p, s).getBoots().getName();
+            case "armor_boots_data":
+                return (p, s) -> inventories.of(p, s).getBoots().getData();
+            case "armor_boots_durability":
+                return (p, s) -> inventories.of(p, s).getBoots().getDurability();
+        }
+        return null;
+    }
 
-            return target == null ? "0" : retrievePing(target, targetedColoredPing);
+    private PlaceholderResolver.Online compilePingStatistic(String identifier) {
+        switch (identifier) {
+            case "ping_avg":
+                return (p, s) -> {
+                    final PingHistory history = pingSampler.history(p);
+                    return IntStrings.valueOf(history == null ? PlayerUtil.getPing(p) : history.average());
+                };
+            case "ping_min":
+                return (p, s) -> {
+                    final PingHistory history = pingSampler.history(p);
+                    return IntStrings.valueOf(history == null ? PlayerUtil.getPing(p) : history.min());
+                };
+            case "ping_max":
+                return (p, s) -> {
+                    final PingHistory history = pingSampler.history(p);
+                    return IntStrings.valueOf(history == null ? PlayerUtil.getPing(p) : history.max());
+                };
+            case "ping_p95":
+                return (p, s) -> {
+                    final PingHistory history = pingSampler.history(p);
+                    return IntStrings.valueOf(history == null ? PlayerUtil.getPing(p) : history.percentile(95));
+                };
+            case "ping_jitter":
+                return (p, s) -> {
+                    final PingHistory history = pingSampler.history(p);
+                    return IntStrings.valueOf(history == null ? 0 : history.jitter());
+                };
         }
+        return null;
+    }
 
-        if (player == null) {
-            return "";
+    private PlaceholderResolver compileOffline(String identifier) {
+        final PlaceholderResolver live = compileOfflineLive(identifier);
+        if (live == null || !offlineCache.isEnabled()) {
+            return live;
         }
 
-        // offline placeholders
+        final PlaceholderResolver metadata = compileOfflineMetadata(identifier);
+        if (metadata == null) {
+            return live;
+        }
+        // online players are read as they are, only what would come from disk is cached
+        return player -> player.isOnline() ? live.resolve(player) : metadata.resolve(player);
+    }
+
+    private PlaceholderResolver compileOfflineLive(String identifier) {
         switch (identifier) {
             case "name":
-                return player.getName();
+                return OfflinePlayer::getName;
             case "uuid":
-                return player.getUniqueId().toString();
+                return player -> player.getUniqueId().toString();
             case "has_played_before":
-                return bool(player.hasPlayedBefore());
+                return player -> bool(player.hasPlayedBefore());
             case "online":
-                return bool(player.isOnline());
+                return player -> bool(player.isOnline());
             case "is_whitelisted":
-                return bool(player.isWhitelisted());
+                return player -> bool(player.isWhitelisted());
             case "is_banned":
-                return bool(player.isBanned());
+                return player -> bool(player.isBanned());
             case "is_op":
-                return bool(player.isOp());
+                return player -> bool(player.isOp());
             case "first_played":
             case "first_join":
-                return String.valueOf(player.getFirstPlayed());
+                return player -> String.valueOf(player.getFirstPlayed());
             case "first_played_formatted":
             case "first_join_date":
-                return PlaceholderAPIPlugin.getDateFormat().format(new Date(player.getFirstPlayed()));
+                return player -> {
+                    final long firstPlayed = firstPlayed(player);
+                    return firstPlayed == UNAVAILABLE ? "" : joinDates.formatFirst(player.getUniqueId(), firstPlayed);
+                };
+            case "first_played_ago":
+            case "first_join_ago":
+                return player -> joinDates.firstAgo(player.getUniqueId(), firstPlayed(player));
             case "last_played":
             case "last_join":
-                return String.valueOf(player.getLastPlayed());
+                return player -> String.valueOf(player.getLastPlayed());
             case "last_played_formatted":
             case "last_join_date":
-                return PlaceholderAPIPlugin.getDateFormat().format(new Date(player.getLastPlayed()));
+                return player -> {
+                    final long lastPlayed = lastPlayed(player);
+                    return lastPlayed == UNAVAILABLE ? "" : joinDates.formatLast(player.getUniqueId(), lastPlayed);
+                };
+            case "last_played_ago":
+            case "last_join_ago":
+                return player -> joinDates.lastAgo(player.getUniqueId(), lastPlayed(player));
             case "bed_x":
-                return player.getBedSpawnLocation() != null ? String.valueOf(player.getBedSpawnLocation().getX()) : "";
+                return player -> player.getBedSpawnLocation() != null ? String.valueOf(player.getBedSpawnLocation().getX()) : "";
             case "bed_y":
-                return player.getBedSpawnLocation() != null ? String.valueOf(player.getBedSpawnLocation().getY()) : "";
+                return player -> player.getBedSpawnLocation() != null ? String.valueOf(player.getBedSpawnLocation().getY()) : "";
             case "bed_z":
-                return player.getBedSpawnLocation() != null ? String.valueOf(player.getBedSpawnLocation().getZ()) : "";
+                return player -> player.getBedSpawnLocation() != null ? String.valueOf(player.getBedSpawnLocation().getZ()) : "";
             case "bed_world":
-                return player.getBedSpawnLocation() != null ? player.getBedSpawnLocation().getWorld()
+                return player -> player.getBedSpawnLocation() != null ? player.getBedSpawnLocation().getWorld()
                         .getName() : "";
 
         }
+        return null;
+    }
+
+    /**
+     * @return When the player first joined, or {@link #UNAVAILABLE} while the cached metadata of an offline player is
+     * being read
+     */
+    private long firstPlayed(final OfflinePlayer player) {
+        if (!offlineCache.isEnabled() || player.isOnline()) {
+            return player.getFirstPlayed();
+        }
+        final OfflineMetadata metadata = offlineCache.get(player);
+        return metadata == null ? UNAVAILABLE : metadata.getFirstPlayed();
+    }
 
-        // online placeholders
-        if (!player.isOnline()) {
-            return "";
+    /**
+     * @return When the player last joined, or {@link #UNAVAILABLE} while the cached metadata of an offline player is
+     * being read
+     */
+    private long lastPlayed(final OfflinePlayer player) {
+        if (!offlineCache.isEnabled() || player.isOnline()) {
+            return player.getLastPlayed();
+        }
+        final OfflineMetadata metadata = offlineCache.get(player);
+        return metadata == null ? UNAVAILABLE : metadata.getLastPlayed();
+    }
+
+    /**
+     * Offline placeholders served from the player's cached {@link OfflineMetadata}, empty until it has been read.
+     */
+    private PlaceholderResolver compileOfflineMetadata(String identifier) {
+        switch (identifier) {
+            case "has_played_before":
+                return offlineMetadata(metadata -> bool(metadata.hasPlayedBefore()));
+            case "is_whitelisted":
+                return offlineMetadata(metadata -> bool(metadata.isWhitelisted()));
+            case "is_banned":
+                return offlineMetadata(metadata -> bool(metadata.isBanned()));
+            case "is_op":
+                return offlineMetadata(metadata -> bool(metadata.isOp()));
+            case "first_played":
+            case "first_join":
+                return offlineMetadata(metadata -> String.valueOf(metadata.getFirstPlayed()));
+            case "last_played":
+            case "last_join":
+                return offlineMetadata(metadata -> String.valueOf(metadata.getLastPlayed()));
+            case "bed_x":
+                return offlineMetadata(OfflineMetadata::getBedX);
+            case "bed_y":
+                return offlineMetadata(OfflineMetadata::getBedY);
+            case "bed_z":
+                return offlineMetadata(OfflineMetadata::getBedZ);
+            case "bed_world":
+                return offlineMetadata(OfflineMetadata::getBedWorld);
         }
+        return null;
+    }
+
+    private PlaceholderResolver offlineMetadata(final Function<OfflineMetadata, String> value) {
+        return player -> {
+            final OfflineMetadata metadata = offlineCache.get(player);
+            return metadata == null ? "" : value.apply(metadata);
+        };
+    }
 
-        Player p = player.getPlayer();
+    private PlaceholderResolver.Online compileOnline(String identifier) {
+        final PlaceholderResolver.Online decimal = compileDecimal(identifier);
+        if (decimal != null) {
+            return decimal;
+        }
 
-        // to get rid of IDE warnings
-        if (p == null) {
-            return "";
+        if (inventories.isEnabled()) {
+            final PlaceholderResolver.Online inventory = compileInventory(identifier);
+            if (inventory != null) {
+                return inventory;
+            }
         }
 
         if (identifier.startsWith("has_permission_")) {
-            if (identifier.split("has_permission_").length > 1) {
-                String perm = identifier.split("has_permission_")[1];
-                return bool(p.hasPermission(perm));
+            final String perm = identifier.substring(15);
+            if (perm.isEmpty()) {
+                return (p, s) -> bool(false);
             }
-            return bool(false);
+            if (permissionCache.isEnabled()) {
+                return (p, s) -> bool(permissionCache.hasPermission(p, perm));
+            }
+            return (p, s) -> bool(p.hasPermission(perm));
         }
 
-        if (identifier.startsWith("has_potioneffect_")) {
-            if (identifier.split("has_potioneffect_").length > 1) {
-                String effect = identifier.split("has_potioneffect_")[1];
-                PotionEffectType potion = PotionEffectType.getByName(effect);
-                return bool(p.hasPotionEffect(potion));
+        if (identifier.startsWith("has_potioneffect_") && identifier.length() > 17) {
+            final PotionEffectType effect = potionEffects.get(identifier.substring(17));
+            if (effect == null) {
+                return (p, s) -> bool(false);
             }
+            return (p, s) -> bool(p.hasPotionEffect(effect));
         }
 
         if (identifier.startsWith("item_in_hand_level_")) {
-            if (identifier.split("item_in_hand_level_").length > 1) {
-                String enchantment = identifier.split("item_in_hand_level_")[1];
-                return String.valueOf(itemInHand(p).getEnchantmentLevel(Enchantment.getByName(enchantment)));
+            final Enchantment enchantment = enchantments.get(identifier.substring(19));
+            if (enchantment == null) {
+                return (p, s) -> "0";
             }
-            return "0";
+            return (p, s) -> IntStrings.valueOf(s.getItemInMainHand(p).getEnchantmentLevel(enchantment));
         }
         if (identifier.startsWith("item_in_offhand_level_")) {
-            if (identifier.split("item_in_offhand_level_").length > 1) {
-                String enchantment = identifier.split("item_in_offhand_level_")[1];
-                return String.valueOf(p.getInventory().getItemInOffHand().getEnchantmentLevel(Enchantment.getByName(enchantment)));
-            }
-            return "0";
-        }
-
-        if (identifier.startsWith("locale")) {
-            String localeStr = PlayerUtil.getLocale(p);
-            String localeStrISO = localeStr.replace("_", "-");
-
-            switch (identifier) {
-                case "locale":
-                    return localeStr;
-                case "locale_country":
-                    Locale locale = Locale.forLanguageTag(localeStrISO);
-                    if (locale == null)
-                        return "";
-                    return locale.getCountry();
-                case "locale_display_country":
-                    locale = Locale.forLanguageTag(localeStrISO);
-                    if (locale == null)
-                        return "";
-                    return locale.getDisplayCountry();
-                case "locale_display_name":
-                    locale = Locale.forLanguageTag(localeStrISO);
-                    if (locale == null)
-                        return "";
-                    return locale.getDisplayName();
-                case "locale_short":
-                    return localeStr.substring(0, localeStr.indexOf("_"));
+            final Enchantment enchantment = enchantments.get(identifier.substring(22));
+            if (enchantment == null) {
+                return (p, s) -> "0";
             }
+            return (p, s) -> IntStrings.valueOf(s.getItemInOffHand(p).getEnchantmentLevel(enchantment));
         }
 
         switch (identifier) {
-            case "absorption": {
-                if (VersionHelper.HAS_ABSORPTION_METHODS) {
-                    return Integer.toString((int) p.getAbsorptionAmount());
-                } else {
-                    return "-1";
+            case "absorption":
+                if (Capabilities.HAS_ABSORPTION) {
+                    return (p, s) -> IntStrings.valueOf((int) p.getAbsorptionAmount());
                 }
-            }
+                return (p, s) -> "-1";
             case "has_empty_slot":
-                return bool(p.getInventory().firstEmpty() > -1);
+                return (p, s) -> bool(s.hasEmptySlot(p));
             case "empty_slots":
-                return String.valueOf(getEmptySlots(p));
+                return (p, s) -> IntStrings.valueOf(s.getEmptySlots(p));
+            case "locale":
+                return (p, s) -> localeCache.get(p).getLocale();
+            case "locale_country":
+                return (p, s) -> localeCache.get(p).getCountry();
+            case "locale_display_country":
+                return (p, s) -> localeCache.get(p).getDisplayCountry();
+            case "locale_display_name":
+                return (p, s) -> localeCache.get(p).getDisplayName();
+            case "locale_short":
+                return (p, s) -> localeCache.get(p).getShortCode();
             case "server":
             case "servername":
-                return "now available in the server expansion";
+                return (p, s) -> "now available in the server expansion";
             case "displayname":
-                return p.getDisplayName();
+                return (p, s) -> p.getDisplayName();
             case "list_name":
-                return p.getPlayerListName();
+                return (p, s) -> p.getPlayerListName();
             case "gamemode":
-                return p.getGameMode().name();
+                return (p, s) -> p.getGameMode().name();
             case "direction":
-                switch (getDirection(p)) {
-                    case NORTH:
-                        return north;
-                    case NORTH_EAST:
-                        return northEast;
-                    case EAST:
-                        return east;
-                    case SOUTH_EAST:
-                        return southEast;
-                    case SOUTH:
-                        return south;
-                    case SOUTH_WEST:
-                        return southWest;
-                    case WEST:
-                        return west;
-                    case NORTH_WEST:
-                        return northWest;
-                }
-                return "";
+                return (p, s) -> {
+                    switch (getDirection(s.getLocation(p))) {
+                        case NORTH:
+                            return north;
+                        case NORTH_EAST:
+                            return northEast;
+                        case EAST:
+                            return east;
+                        case SOUTH_EAST:
+                            return southEast;
+                        case SOUTH:
+                            return south;
+                        case SOUTH_WEST:
+                            return southWest;
+                        case WEST:
+                            return west;
+                        case NORTH_WEST:
+                            return northWest;
+                    }
+                    return "";
+                };
             case "direction_xz":
-                return getXZDirection(p);
+                return (p, s) -> getXZDirection(s.getLocation(p));
             case "world":
-                return p.getWorld().getName();
+                return (p, s) -> s.getWorld(p).getName();
             case "world_type":
-                World.Environment environment = p.getWorld().getEnvironment();
-                if (environment == World.Environment.NETHER) {
-                    return "Nether";
-                } else if (environment == World.Environment.THE_END) {
-                    return "The End";
-                } else if (environment == World.Environment.NORMAL) {
-                    return "Overworld";
-                }
-                return "";
+                return (p, s) -> {
+                    World.Environment environment = s.getWorld(p).getEnvironment();
+                    if (environment == World.Environment.NETHER) {
+                        return "Nether";
+                    } else if (environment == World.Environment.THE_END) {
+                        return "The End";
+                    } else if (environment == World.Environment.NORMAL) {
+                        return "Overworld";
+                    }
+                    return "";
+                };
             case "x":
-                return String.valueOf(p.getLocation().getBlockX());
+                return (p, s) -> IntStrings.valueOf(s.getLocation(p).getBlockX());
             case "x_long":
-                return String.valueOf(p.getLocation().getX());
+                return (p, s) -> String.valueOf(s.getLocation(p).getX());
             case "y":
-                return String.valueOf(p.getLocation().getBlockY());
+                return (p, s) -> IntStrings.valueOf(s.getLocation(p).getBlockY());
             case "y_long":
-                return String.valueOf(p.getLocation().getY());
+                return (p, s) -> String.valueOf(s.getLocation(p).getY());
             case "z":
-                return String.valueOf(p.getLocation().getBlockZ());
+                return (p, s) -> IntStrings.valueOf(s.getLocation(p).getBlockZ());
             case "z_long":
-                return String.valueOf(p.getLocation().getZ());
+                return (p, s) -> String.valueOf(s.getLocation(p).getZ());
             case "yaw":
-                return String.valueOf(p.getLocation().getYaw());
+                return (p, s) -> String.valueOf(s.getLocation(p).getYaw());
             case "pitch":
-                return String.valueOf(p.getLocation().getPitch());
+                return (p, s) -> String.valueOf(s.getLocation(p).getPitch());
             case "biome":
-                return getBiome(p);
+                return (p, s) -> s.getBiome(p);
             case "biome_capitalized":
-                return getCapitalizedBiome(p);
+                return (p, s) -> capitalizeBiome(s.getBiome(p));
             case "light_level":
-                return String.valueOf(p.getLocation().getBlock().getLightLevel());
+                return (p, s) -> IntStrings.valueOf(s.getLightLevel(p));
             case "ip":
-                return p.getAddress().getAddress().getHostAddress();
+                return (p, s) -> p.getAddress().getAddress().getHostAddress();
             case "allow_flight":
-                return bool(p.getAllowFlight());
+                return (p, s) -> bool(p.getAllowFlight());
             case "can_pickup_items":
-                return bool(p.getCanPickupItems());
+                return (p, s) -> bool(p.getCanPickupItems());
             case "compass_x":
-                return p.getCompassTarget() != null ? String.valueOf(p.getCompassTarget().getBlockX()) : "";
+                return (p, s) -> p.getCompassTarget() != null ? IntStrings.valueOf(p.getCompassTarget().getBlockX()) : "";
             case "compass_y":
-                return p.getCompassTarget() != null ? String.valueOf(p.getCompassTarget().getBlockY()) : "";
+                return (p, s) -> p.getCompassTarget() != null ? IntStrings.valueOf(p.getCompassTarget().getBlockY()) : "";
             case "compass_z":
-                return p.getCompassTarget() != null ? String.valueOf(p.getCompassTarget().getBlockZ()) : "";
+                return (p, s) -> p.getCompassTarget() != null ? IntStrings.valueOf(p.getCompassTarget().getBlockZ()) : "";
             case "compass_world":
-                return p.getCompassTarget() != null ? p.getCompassTarget().getWorld().getName() : "";
+                return (p, s) -> p.getCompassTarget() != null ? p.getCompassTarget().getWorld().getName() : "";
             case "block_underneath":
-                return String.valueOf(p.getLocation().clone().subtract(0, 1, 0).getBlock().getType());
+                return (p, s) -> s.getBlockUnderneath(p);
             case "custom_name":
-                return p.getCustomName() != null ? p.getCustomName() : p.getName();
+                return (p, s) -> p.getCustomName() != null ? p.getCustomName() : p.getName();
             case "exp":
-                return String.valueOf(p.getExp());
+                return (p, s) -> String.valueOf(p.getExp());
             case "current_exp":
-                return String.valueOf(getTotalExperience(p));
+                return (p, s) -> IntStrings.valueOf(getTotalExperience(p));
             case "total_exp":
-                return String.valueOf(p.getTotalExperience());
+                return (p, s) -> IntStrings.valueOf(p.getTotalExperience());
             case "exp_to_level":
-                return String.valueOf(p.getExpToLevel());
+                return (p, s) -> IntStrings.valueOf(p.getExpToLevel());
             case "level":
-                return String.valueOf(p.getLevel());
+                return (p, s) -> IntStrings.valueOf(p.getLevel());
             case "fly_speed":
-                return String.valueOf(p.getFlySpeed());
+                return (p, s) -> String.valueOf(p.getFlySpeed());
             case "food_level":
-                return String.valueOf(p.getFoodLevel());
+                return (p, s) -> IntStrings.valueOf(p.getFoodLevel());
             case "health":
-                return String.valueOf(p.getHealth());
+                return (p, s) -> String.valueOf(p.getHealth());
             case "health_rounded":
-                return String.valueOf(Math.round(p.getHealth()));
+                return (p, s) -> IntStrings.valueOf((int) Math.round(p.getHealth()));
             case "health_scale":
-                return String.valueOf(p.getHealthScale());
+                return (p, s) -> String.valueOf(p.getHealthScale());
             case "has_health_boost":
-                return bool(p.hasPotionEffect(PotionEffectType.HEALTH_BOOST));
-            case "health_boost": {
-                if (p.getHealthScale() > 20) {
-                    return Double.toString(p.getHealthScale() - 20);
-                } else {
-                    return "0";
-                }
-            }
+                return (p, s) -> bool(p.hasPotionEffect(PotionEffectType.HEALTH_BOOST));
+            case "health_boost":
+                return (p, s) -> {
+                    if (p.getHealthScale() > 20) {
+                        return Double.toString(p.getHealthScale() - 20);
+                    } else {
+                        return "0";
+                    }
+                };
             case "item_in_hand":
-                return String.valueOf(itemInHand(p).getType());
+                return (p, s) -> String.valueOf(s.getItemInMainHand(p).getType());
             case "item_in_hand_name":
-                return itemInHand(p).getType() != Material.AIR && itemInHand(p).getItemMeta().hasDisplayName() ? itemInHand(p).getItemMeta().getDisplayName() : "";
+                return (p, s) -> s.getItemInMainHand(p).getType() != Material.AIR && s.getItemInMainHand(p).getItemMeta().hasDisplayName() ? s.getItemInMainHand(p).getItemMeta().getDisplayName() : "";
             case "item_in_hand_data":
-                return itemInHand(p).getType() != Material.AIR ? String.valueOf(itemInHand(p).getDurability()) : "0";
+                return (p, s) -> s.getItemInMainHand(p).getType() != Material.AIR ? IntStrings.valueOf(s.getItemInMainHand(p).getDurability()) : "0";
             case "item_in_hand_durability":
-                return String.valueOf(durability(itemInHand(p)));
+                return (p, s) -> IntStrings.valueOf(durability(s.getItemInMainHand(p)));
             case "item_in_offhand":
-                return String.valueOf(p.getInventory().getItemInOffHand().getType());
+                return (p, s) -> String.valueOf(s.getItemInOffHand(p).getType());
             case "item_in_offhand_name":
-                return p.getInventory().getItemInOffHand().getType() != Material.AIR && p.getInventory().getItemInOffHand().getItemMeta().hasDisplayName() ? p.getInventory().getItemInOffHand().getItemMeta().getDisplayName() : "";
+                return (p, s) -> s.getItemInOffHand(p).getType() != Material.AIR && s.getItemInOffHand(p).getItemMeta().hasDisplayName() ? s.getItemInOffHand(p).getItemMeta().getDisplayName() : "";
             case "item_in_offhand_data":
-                return p.getInventory().getItemInOffHand().getType() != Material.AIR ? String.valueOf(p.getInventory().getItemInOffHand().getDurability()) : "0";
+                return (p, s) -> s.getItemInOffHand(p).getType() != Material.AIR ? IntStrings.valueOf(s.getItemInOffHand(p).getDurability()) : "0";
             case "item_in_offhand_durability":
-                return String.valueOf(durability(p.getInventory().getItemInOffHand()));
+                return (p, s) -> IntStrings.valueOf(durability(s.getItemInOffHand(p)));
             case "last_damage":
-                return String.valueOf(p.getLastDamage());
+                return (p, s) -> String.valueOf(p.getLastDamage());
             case "max_health":
-                return String.valueOf(p.getMaxHealth());
+                return (p, s) -> String.valueOf(p.getMaxHealth());
             case "max_health_rounded":
-                return String.valueOf(Math.round(p.getMaxHealth()));
+                return (p, s) -> IntStrings.valueOf((int) Math.round(p.getMaxHealth()));
             case "max_air":
-                return String.valueOf(p.getMaximumAir());
+                return (p, s) -> IntStrings.valueOf(p.getMaximumAir());
             case "max_no_damage_ticks":
-                return String.valueOf(p.getMaximumNoDamageTicks());
+                return (p, s) -> IntStrings.valueOf(p.getMaximumNoDamageTicks());
             case "no_damage_ticks":
-                return String.valueOf(p.getNoDamageTicks());
+                return (p, s) -> IntStrings.valueOf(p.getNoDamageTicks());
             case "armor_helmet_name":
-                return Optional.ofNullable(p.getInventory().getHelmet()).map(a -> a.getItemMeta().getDisplayName()).orElse("");
+                return (p, s) -> Optional.ofNullable(s.getHelmet(p)).map(a -> a.getItemMeta().getDisplayName()).orElse("");
             case "armor_helmet_data":
-                return p.getInventory().getHelmet() != null ? String.valueOf(p.getInventory().getHelmet().getDurability()) : "0";
+                return (p, s) -> s.getHelmet(p) != null ? IntStrings.valueOf(s.getHelmet(p).getDurability()) : "0";
             case "armor_helmet_durability":
-                return String.valueOf(durability(p.getInventory().getHelmet()));
+                return (p, s) -> IntStrings.valueOf(durability(s.getHelmet(p)));
             case "armor_chestplate_name":
-                return Optional.ofNullable(p.getInventory().getChestplate()).map(a -> a.getItemMeta().getDisplayName()).orElse("");
+                return (p, s) -> Optional.ofNullable(s.getChestplate(p)).map(a -> a.getItemMeta().getDisplayName()).orElse("");
             case "armor_chestplate_data":
-                return p.getInventory().getChestplate() != null ? String.valueOf(p.getInventory().getChestplate().getDurability()) : "0";
+                return (p, s) -> s.getChestplate(p) != null ? IntStrings.valueOf(s.getChestplate(p).getDurability()) : "0";
             case "armor_chestplate_durability":
-                return String.valueOf(durability(p.getInventory().getChestplate()));
+                return (p, s) -> IntStrings.valueOf(durability(s.getChestplate(p)));
             case "armor_leggings_name":
-                return Optional.ofNullable(p.getInventory().getLeggings()).map(a -> a.getItemMeta().getDisplayName()).orElse("");
+                return (p, s) -> Optional.ofNullable(s.getLeggings(p)).map(a -> a.getItemMeta().getDisplayName()).orElse("");
             case "armor_leggings_data":
-                return p.getInventory().getLeggings() != null ? String.valueOf(p.getInventory().getLeggings().getDurability()) : "0";
+                return (p, s) -> s.getLeggings(p) != null ? IntStrings.valueOf(s.getLeggings(p).getDurability()) : "0";
             case "armor_leggings_durability":
-                return String.valueOf(durability(p.getInventory().getLeggings()));
+                return (p, s) -> IntStrings.valueOf(durability(s.getLeggings(p)));
             case "armor_boots_name":
-                return Optional.ofNullable(p.getInventory().getBoots()).map(a -> a.getItemMeta().getDisplayName()).orElse("");
+                return (p, s) -> Optional.ofNullable(s.getBoots(p)).map(a -> a.getItemMeta().getDisplayName()).orElse("");
             case "armor_boots_data":
-                return p.getInventory().getBoots() != null ? String.valueOf(p.getInventory().getBoots().getDurability()) : "0";
+                return (p, s) -> s.getBoots(p) != null ? IntStrings.valueOf(s.getBoots(p).getDurability()) : "0";
             case "armor_boots_durability":
-                return String.valueOf(durability(p.getInventory().getBoots()));
+                return (p, s) -> IntStrings.valueOf(durability(s.getBoots(p)));
             case "ping":
-                return retrievePing(p, false);
+                return (p, s) -> retrievePing(p, false);
             case "colored_ping":
-                return retrievePing(p, true);
+                return (p, s) -> retrievePing(p, true);
             case "time":
-                return String.valueOf(p.getPlayerTime());
+                return (p, s) -> String.valueOf(p.getPlayerTime());
             case "time_offset":
-                return String.valueOf(p.getPlayerTimeOffset());
+                return (p, s) -> String.valueOf(p.getPlayerTimeOffset());
             case "remaining_air":
-                return String.valueOf(p.getRemainingAir());
+                return (p, s) -> IntStrings.valueOf(p.getRemainingAir());
             case "saturation":
-                return String.valueOf(p.getSaturation());
+                return (p, s) -> String.valueOf(p.getSaturation());
             case "sleep_ticks":
-                return String.valueOf(p.getSleepTicks());
+                return (p, s) -> IntStrings.valueOf(p.getSleepTicks());
             case "thunder_duration":
-                return String.valueOf(p.getWorld().getThunderDuration());
+                return (p, s) -> IntStrings.valueOf(s.getThunderDuration(p));
             case "ticks_lived":
-                return String.valueOf(p.getTicksLived());
+                return (p, s) -> IntStrings.valueOf(p.getTicksLived());
             case "seconds_lived":
-                return String.valueOf(p.getTicksLived() / 20);
+                return (p, s) -> IntStrings.valueOf(p.getTicksLived() / 20);
             case "minutes_lived":
-                return String.valueOf((p.getTicksLived() / 20) / 60);
+                return (p, s) -> IntStrings.valueOf((p.getTicksLived() / 20) / 60);
             case "walk_speed":
-                return String.valueOf(p.getWalkSpeed());
+                return (p, s) -> String.valueOf(p.getWalkSpeed());
             case "weather_duration":
-                return String.valueOf(p.getWorld().getWeatherDuration());
+                return (p, s) -> String.valueOf(s.getWeatherDuration(p));
             case "world_time":
-                return String.valueOf(p.getWorld().getTime());
+                return (p, s) -> String.valueOf(s.getWorldTime(p));
             case "world_time_12":
-                return format12(p.getWorld().getTime());
+                return (p, s) -> format12(s.getWorldTime(p));
             case "world_time_24":
-                return format24(p.getWorld().getTime());
+                return (p, s) -> format24(s.getWorldTime(p));
+            case "world_time_custom":
+                return (p, s) -> customTime.format(s.getWorldTime(p));
             case "is_flying":
-                return bool(p.isFlying());
+                return (p, s) -> bool(p.isFlying());
             case "is_sleeping":
-                return bool(p.isSleeping());
+                return (p, s) -> bool(p.isSleeping());
             case "is_conversing":
-                return bool(p.isConversing());
+                return (p, s) -> bool(p.isConversing());
             case "is_dead":
-                return bool(p.isDead());
+                return (p, s) -> bool(p.isDead());
             case "is_sneaking":
-                return bool(p.isSneaking());
+                return (p, s) -> bool(p.isSneaking());
             case "is_sprinting":
-                return bool(p.isSprinting());
+                return (p, s) -> bool(p.isSprinting());
             case "is_leashed":
-                return bool(p.isLeashed());
+                return (p, s) -> bool(p.isLeashed());
             case "is_inside_vehicle":
-                return bool(p.isInsideVehicle());
+                return (p, s) -> bool(p.isInsideVehicle());
         }
         // return null for unknown placeholders
-        return null;
+        return (p, s) -> null;
     }
 
     @Override
     public boolean register() {
-        low = this.getString("ping_color.low", "&a");
-        medium = this.getString("ping_color.medium", "&e");
-        high = this.getString("ping_color.high", "&c");
-        mediumValue = this.getInt("ping_value.medium", 50);
-        highValue = this.getInt("ping_value.high", 100);
-        north = this.getString("direction.north", "N");
-        northEast = this.getString("direction.north_east", "NE");
-        east = this.getString("direction.east", "E");
-        southEast = this.getString("direction.south_east", "SE");
-        south = this.getString("direction.south", "S");
-        southWest = this.getString("direction.south_west", "SW");
-        west = this.getString("direction.west", "W");
-        northWest = this.getString("direction.north_west", "NW");
+        PlayerAccessors.init();
+        Capabilities.init();
+        setScheduler(TaskScheduler.detect());
+        load(getConfigSection(), PlaceholderAPIPlugin.booleanTrue(), PlaceholderAPIPlugin.booleanFalse());
+        return super.register();
+    }
 
+    /**
+     * Replaces the scheduler {@link #register()} detects, for running the expansion on stand-in servers.
+     */
+    void setScheduler(final TaskScheduler scheduler) {
+        this.scheduler = scheduler;
+        snapshots.setScheduler(scheduler);
+    }
 
-        return super.register();
+    /**
+     * Applies the expansion config. Kept apart from {@link #register()} so the expansion can be set up without a
+     * running PlaceholderAPI, as the benchmarks do.
+     *
+     * @param config The expansion config section, or null to use the defaults
+     */
+    void load(final ConfigurationSection config, final String booleanTrue, final String booleanFalse) {
+        final ConfigurationSection section = config == null ? new MemoryConfiguration() : config;
+        this.booleanTrue = booleanTrue;
+        this.booleanFalse = booleanFalse;
+        pingColors = compilePingColors(section);
+        north = section.getString("direction.north", "N");
+        northEast = section.getString("direction.north_east", "NE");
+        east = section.getString("direction.east", "E");
+        southEast = section.getString("direction.south_east", "SE");
+        south = section.getString("direction.south", "S");
+        southWest = section.getString("direction.south_west", "SW");
+        west = section.getString("direction.west", "W");
+        northWest = section.getString("direction.north_west", "NW");
+        customTime = compileTimeFormat(section.getString("world_time.custom_format", "HH:mm:ss"));
+        IntStrings.setEnabled(section.getBoolean("cache.int_strings", true));
+        pingSampler.configure(section.getBoolean("ping_sampler.enabled", false),
+                section.getBoolean("ping_sampler.use_last_sample", false),
+                section.getInt("ping_sampler.interval", 20),
+                section.getInt("ping_sampler.window", 30));
+        snapshots.setEnabled(section.getBoolean("snapshot.enabled", false));
+        snapshots.setAsync(section.getBoolean("snapshot.async", false));
+        permissionCache.configure(section.getBoolean("permission_cache.enabled", false),
+                section.getInt("permission_cache.ttl", 100));
+        inventories.configure(section.getBoolean("inventory_summary.enabled", false),
+                section.getInt("inventory_summary.max_age", 20));
+        blocks.configure(section.getBoolean("block_cache.enabled", false),
+                section.getInt("block_cache.max_age", 20));
+        offlineCache.configure(section.getBoolean("offline_cache.enabled", false),
+                section.getInt("offline_cache.size", 1000),
+                section.getInt("offline_cache.ttl", 6000),
+                task -> scheduler.runAsync(getPlaceholderAPI(), task));
+        offlineStatistics.configure(section.getBoolean("offline_statistics.enabled", false),
+                section.getInt("offline_statistics.size", 1000),
+                section.getInt("offline_statistics.ttl", 6000),
+                task -> scheduler.runAsync(getPlaceholderAPI(), task));
+        changes.setEnabled(section.getBoolean("change_tracking.enabled", false));
+        metrics.setEnabled(section.getBoolean("metrics.enabled", false));
+        metricsDumpInterval = section.getInt("metrics.dump_interval", 1200);
+        metricsDumpFile = section.getString("metrics.dump_file", "player_metrics.prom");
+        resolvers.clear();
+        potionEffects.clear();
+        enchantments.clear();
+        // index the players that were online before the expansion was (re)loaded
+        playerIndex.reset(Bukkit.getOnlinePlayers());
+    }
+
+    /**
+     * Compiles the optional {@code ping_tiers} section (ping threshold: color), or the three legacy tiers without it.
+     */
+    private PingColors compilePingColors(final ConfigurationSection section) {
+        final ConfigurationSection tiers = section.getConfigurationSection("ping_tiers");
+        if (tiers == null) {
+            return PingColors.legacy(section.getString("ping_color.low", "&a"),
+                    section.getString("ping_color.medium", "&e"),
+                    section.getString("ping_color.high", "&c"),
+                    section.getInt("ping_value.medium", 50),
+                    section.getInt("ping_value.high", 100));
+        }
+
+        final Map<Integer, String> colors = new HashMap<>();
+        for (final String threshold : tiers.getKeys(false)) {
+            try {
+                colors.put(Integer.parseInt(threshold.trim()), tiers.getString(threshold, ""));
+            } catch (final NumberFormatException ex) {
+                PlaceholderAPIPlugin.getInstance().getLogger()
+                        .log(Level.WARNING, "Invalid ping_tiers threshold '" + threshold + "', skipping it");
+            }
+        }
+        return PingColors.of(colors);
+    }
+
+    private TimeTable compileTimeFormat(final String pattern) {
+        try {
+            return TimeTable.of(pattern);
+        } catch (final IllegalArgumentException | DateTimeException ex) {
+            PlaceholderAPIPlugin.getInstance().getLogger()
+                    .log(Level.WARNING, "Invalid world_time.custom_format '" + pattern + "', using HH:mm instead", ex);
+            return TimeTable.TWENTY_FOUR;
+        }
+    }
+
+    @Override
+    public void start() {
+        // PlaceholderAPI registers this expansion itself, the events older servers lack are listened to separately
+        for (final Listener listener : VersionedListeners.create(this::inventoryChanged, localeCache::update)) {
+            Bukkit.getPluginManager().registerEvents(listener, getPlaceholderAPI());
+            listeners.add(listener);
+        }
+        if (snapshots.isTicking()) {
+            tickTask = scheduler.runGlobalTimer(getPlaceholderAPI(), snapshots::tick, 1L, 1L);
+        }
+        if (pingSampler.isEnabled()) {
+            pingTask = scheduler.runGlobalTimer(getPlaceholderAPI(), pingSampler, 1L, pingSampler.getInterval());
+        }
+        if (scheduler.isRegionThreaded()) {
+            for (final Player player : Bukkit.getOnlinePlayers()) {
+                startPlayerTask(player);
+            }
+        } else if (changes.isEnabled()) {
+            changesTask = scheduler.runGlobalTimer(getPlaceholderAPI(), () -> {
+                for (final Player player : Bukkit.getOnlinePlayers()) {
+                    changes.diff(player, pingSampler.ping(player));
+                }
+            }, 1L, 1L);
+        }
+        if (metrics.isEnabled()) {
+            metricsCommand = new MetricsCommand(metrics, this::dumpMetrics);
+            metricsCommand.register();
+            if (metricsDumpInterval > 0) {
+                dumpTask = scheduler.runAsyncTimer(getPlaceholderAPI(), this::dumpMetrics, metricsDumpInterval, metricsDumpInterval);
+            }
+        }
+    }
+
+    /**
+     * Writes the metrics in the Prometheus text format, replacing the previous dump in one move so scrapers never
+     * read a partial file.
+     */
+    private void dumpMetrics() {
+        final Path target = new File(getPlaceholderAPI().getDataFolder(), metricsDumpFile).toPath();
+        try {
+            final StringBuilder builder = new StringBuilder();
+            metrics.writePrometheus(builder);
+
+            final Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.write(temporary, builder.toString().getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException ex) {
+            PlaceholderAPIPlugin.getInstance().getLogger()
+                    .log(Level.WARNING, "Could not write the player expansion metrics to " + target, ex);
+        }
+    }
+
+    /**
+     * On region-threaded servers, captures (and diffs) the player every tick on the thread that owns them. Requests
+     * from other region threads, or async ones, are served from those captures.
+     */
+    private void startPlayerTask(final Player player) {
+        final TaskScheduler.Task task = scheduler.runPlayerTimer(getPlaceholderAPI(), player, () -> {
+            snapshots.capture(player);
+            if (changes.isEnabled()) {
+                changes.diff(player, pingSampler.ping(player));
+            }
+        }, 1L, 1L);
+        final TaskScheduler.Task previous = playerTasks.put(player.getUniqueId(), task);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void stopPlayerTask(final UUID uuid) {
+        final TaskScheduler.Task task = playerTasks.remove(uuid);
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        if (pingTask != null) {
+            pingTask.cancel();
+            pingTask = null;
+        }
+        if (dumpTask != null) {
+            dumpTask.cancel();
+            dumpTask = null;
+        }
+        if (changesTask != null) {
+            changesTask.cancel();
+            changesTask = null;
+        }
+        if (metricsCommand != null) {
+            metricsCommand.unregister();
+            metricsCommand = null;
+        }
+        for (final Listener listener : listeners) {
+            HandlerList.unregisterAll(listener);
+        }
+        listeners.clear();
+        for (final UUID uuid : playerTasks.keySet()) {
+            stopPlayerTask(uuid);
+        }
+        snapshots.clear();
+        pingSampler.clear();
+        localeCache.clear();
+        permissionCache.clear();
+        inventories.clear();
+        blocks.clear();
+        offlineCache.clear();
+        offlineStatistics.clear();
+        joinDates.clear();
+        changes.clear();
+    }
+
+    /**
+     * @return The current change version, to pass to {@link #hasChanged(OfflinePlayer, String, long)} on the next
+     * refresh
+     */
+    public long getChangeVersion() {
+        return changes.getVersion();
+    }
+
+    /**
+     * Tells whether a placeholder may show a different value than it did at the given version, so consumers such as
+     * scoreboards can skip resolving and sending lines that did not change. Placeholders whose changes are not
+     * tracked, and everything while change tracking is disabled, always count as changed.
+     *
+     * @param since A version from {@link #getChangeVersion()}
+     */
+    public boolean hasChanged(OfflinePlayer player, String identifier, long since) {
+        if (!changes.isEnabled() || player == null) {
+            return true;
+        }
+
+        final ChangeGroup group = changeGroups.get(identifier);
+        return group == null || changes.changedSince(player.getUniqueId(), group, since);
+    }
+
+    /**
+     * {@link #hasChanged(OfflinePlayer, String, long)} for several identifiers of the same player.
+     */
+    public boolean[] hasChanged(OfflinePlayer player, String[] identifiers, long since) {
+        final boolean[] changed = new boolean[identifiers.length];
+        for (int i = 0; i < identifiers.length; i++) {
+            changed[i] = hasChanged(player, identifiers[i], since);
+        }
+        return changed;
+    }
+
+    private void inventoryChanged(final UUID uuid) {
+        inventories.markDirty(uuid);
+        changes.bump(uuid, ChangeGroup.INVENTORY);
+    }
+
+    /**
+     * Forgets the cached {@code has_permission_} results of a player. Bukkit has no event for permission changes,
+     * so permission plugins (or hooks listening to theirs) can call this for changes to show before the TTL ends.
+     */
+    public void invalidatePermissions(final UUID uuid) {
+        permissionCache.invalidate(uuid);
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(final PlayerJoinEvent event) {
+        playerIndex.add(event.getPlayer());
+        localeCache.remove(event.getPlayer().getUniqueId());
+        permissionCache.invalidate(event.getPlayer().getUniqueId());
+        inventories.remove(event.getPlayer().getUniqueId());
+        offlineCache.invalidate(event.getPlayer().getUniqueId());
+        joinDates.remove(event.getPlayer().getUniqueId());
+        if (scheduler.isRegionThreaded()) {
+            startPlayerTask(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(final PlayerChangedWorldEvent event) {
+        // per-world permissions are the common case of permissions changing mid-session
+        permissionCache.invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(final PlayerQuitEvent event) {
+        playerIndex.remove(event.getPlayer());
+        snapshots.remove(event.getPlayer().getUniqueId());
+        pingSampler.remove(event.getPlayer().getUniqueId());
+        localeCache.remove(event.getPlayer().getUniqueId());
+        permissionCache.remove(event.getPlayer().getUniqueId());
+        inventories.remove(event.getPlayer().getUniqueId());
+        blocks.remove(event.getPlayer().getUniqueId());
+        stopPlayerTask(event.getPlayer().getUniqueId());
+        changes.remove(event.getPlayer().getUniqueId());
+        offlineCache.invalidate(event.getPlayer().getUniqueId());
+        // the server saves the stats file after this, so it is only read again on the next request
+        offlineStatistics.invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onBedEnter(final PlayerBedEnterEvent event) {
+        offlineCache.invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerCommand(final PlayerCommandPreprocessEvent event) {
+        invalidateOfflineCache(event.getMessage());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onServerCommand(final ServerCommandEvent event) {
+        invalidateOfflineCache(event.getCommand());
+    }
+
+    /**
+     * Bukkit has no events for ban, whitelist or op changes, so the commands making them are watched instead.
+     * They can target anyone (or everyone, like whitelist off), so all cached metadata is refreshed.
+     */
+    private void invalidateOfflineCache(final String command) {
+        if (!offlineCache.isEnabled()) {
+            return;
+        }
+
+        String label = command.startsWith("/") ? command.substring(1) : command;
+        final int space = label.indexOf(' ');
+        label = (space == -1 ? label : label.substring(0, space)).toLowerCase(Locale.ROOT);
+        label = label.substring(label.indexOf(':') + 1);
+
+        switch (label) {
+            case "ban":
+            case "ban-ip":
+            case "tempban":
+            case "pardon":
+            case "pardon-ip":
+            case "unban":
+            case "whitelist":
+            case "op":
+            case "deop":
+                // the event comes before the command runs, so its changes are only visible from the next tick
+                scheduler.runGlobalLater(getPlaceholderAPI(), offlineCache::invalidateAll, 1L);
+        }
+    }
+
+    // Spigot has no armor change event, armor equipped by right-click or dispensers is covered by
+    // the interact and dispense events, anything else by the summary's maximum age
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClick(final InventoryClickEvent event) {
+        inventoryChanged(event.getWhoClicked().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryDrag(final InventoryDragEvent event) {
+        inventoryChanged(event.getWhoClicked().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(final InventoryCloseEvent event) {
+        inventoryChanged(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemHeld(final PlayerItemHeldEvent event) {
+        inventoryChanged(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDrop(final PlayerDropItemEvent event) {
+        inventoryChanged(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemDamage(final PlayerItemDamageEvent event) {
+        inventoryChanged(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(final PlayerItemBreakEvent event) {
+        inventoryChanged(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemConsume(final PlayerItemConsumeEvent event) {
+        inventoryChanged(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onBlockPlace(final BlockPlaceEvent event) {
+        inventoryChanged(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInteract(final PlayerInteractEvent event) {
+        inventoryChanged(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(final PlayerRespawnEvent event) {
+        inventoryChanged(event.getPlayer().getUniqueId());
+        // respawning can use up a respawn anchor charge or find the bed missing
+        offlineCache.invalidate(event.getPlayer().getUniqueId());
     }
 
     public String bool(boolean b) {
-        return b ? PlaceholderAPIPlugin.booleanTrue() : PlaceholderAPIPlugin.booleanFalse();
+        return b ? booleanTrue : booleanFalse;
     }
 
 
     private String retrievePing(final Player player, final boolean colored) {
-        final int ping = PlayerUtil.getPing(player);
+        final int ping = pingSampler.ping(player);
         if (!colored) {
-            return String.valueOf(ping);
+            return IntStrings.valueOf(ping);
         }
 
-        return ChatColor.translateAlternateColorCodes('&', ping > highValue ? high : ping > mediumValue ? medium : low) + ping;
+        return pingColors.format(ping);
     }
 
 }
@@ -0,0 +1,46 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.entity.Player;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exact, case-insensitive index of online players by name, kept up to date by join and quit events. Since it holds
+ * every online player a miss is as cheap as a hit, so unknown names never fall back to scanning the player list.
+ */
+public final class PlayerIndex {
+
+    private final Map<String, Player> players = new ConcurrentHashMap<>();
+
+    /**
+     * @return The key a name is indexed under, computed once by callers that look the same name up repeatedly
+     */
+    public static String key(final String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public void reset(final Iterable<? extends Player> online) {
+        players.clear();
+        for (final Player player : online) {
+            add(player);
+        }
+    }
+
+    public void add(final Player player) {
+        players.put(key(player.getName()), player);
+    }
+
+    public void remove(final Player player) {
+        players.remove(key(player.getName()), player);
+    }
+
+    /**
+     * @param key A name passed through {@link #key(String)}
+     * @return The online player with exactly that name, or null
+     */
+    public Player get(final String key) {
+        return players.get(key);
+    }
+}
@@ -0,0 +1,316 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+/**
+ * The commonly read state of a player, fetched on first use and then shared by every placeholder requested for
+ * that player during the same server tick. Values served from a snapshot are at most one tick stale.
+ * Lazily filled snapshots are not thread-safe and are only shared on the thread that owns the player.
+ * <p>
+ * A {@link #capture(Player, long, BlockCache) captured} snapshot reads all world state up front on the owning thread
+ * and is never written to afterwards, so it can be handed to other threads which then never touch the world themselves.
+ * <p>
+ * The {@link #live(BlockCache) live} snapshot holds nothing and reads the player passed to each getter directly. It
+ * serves every request that no snapshot applies to, without allocating one per request.
+ */
+public final class PlayerSnapshot {
+
+    private static final int UNSET = -1;
+
+    private final Player player;
+    private final long tick;
+    private final BlockCache blocks;
+    private final boolean live;
+
+    private Location location;
+    private World world;
+    private PlayerInventory inventory;
+    private ItemStack mainHand;
+    private ItemStack offHand;
+    private boolean armorRead;
+    private ItemStack helmet;
+    private ItemStack chestplate;
+    private ItemStack leggings;
+    private ItemStack boots;
+    private int emptySlots = UNSET;
+    private Boolean hasEmptySlot;
+
+    private long worldTime = UNSET;
+    private int thunderDuration = UNSET;
+    private int weatherDuration = UNSET;
+    private int lightLevel = UNSET;
+    private String biome;
+    private String blockUnderneath;
+
+    PlayerSnapshot(final Player player, final long tick, final BlockCache blocks) {
+        this(player, tick, blocks, false);
+    }
+
+    private PlayerSnapshot(final Player player, final long tick, final BlockCache blocks, final boolean captured) {
+        this.player = player;
+        this.tick = tick;
+        this.blocks = blocks;
+        this.live = player == null;
+
+        if (captured) {
+            location = player.getLocation();
+            world = player.getWorld();
+            // items are mirrors of the live inventory, so the snapshot keeps copies and drops the inventory itself
+            final PlayerInventory inventory = player.getInventory();
+            mainHand = copy(PlayerUtil.itemInHand(inventory));
+            offHand = copy(PlayerUtil.itemInOffHand(inventory));
+            helmet = copy(inventory.getHelmet());
+            chestplate = copy(inventory.getChestplate());
+            leggings = copy(inventory.getLeggings());
+            boots = copy(inventory.getBoots());
+            armorRead = true;
+            emptySlots = PlayerUtil.getEmptySlots(inventory);
+            hasEmptySlot = inventory.firstEmpty() > -1;
+            worldTime = world.getTime();
+            thunderDuration = world.getThunderDuration();
+            weatherDuration = world.getWeatherDuration();
+            if (blocks.isEnabled()) {
+                final BlockCache.BlockInfo block = blocks.of(player, location);
+                lightLevel = block.getLightLevel();
+                biome = block.getBiome();
+                blockUnderneath = block.getBlockUnderneath();
+            } else {
+                lightLevel = location.getBlock().getLightLevel();
+                biome = PlayerUtil.getBiome(location);
+                blockUnderneath = String.valueOf(location.clone().subtract(0, 1, 0).getBlock().getType());
+            }
+        }
+    }
+
+    /**
+     * Reads all world and inventory state of the player, must be called from the thread that owns them.
+     */
+    static PlayerSnapshot capture(final Player player, final long tick, final BlockCache blocks) {
+        return new PlayerSnapshot(player, tick, blocks, true);
+    }
+
+    /**
+     * @return A snapshot that memoizes nothing, shared by every player and thread
+     */
+    static PlayerSnapshot live(final BlockCache blocks) {
+        return new PlayerSnapshot(null, -1, blocks, false);
+    }
+
+    /**
+     * @return The player this snapshot is of, null for the live snapshot
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * @return The tick this snapshot was taken in, or -1 if it is only valid for a single request or live
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return The location of the player, shared by all readers so it must not be mutated
+     */
+    public Location getLocation(final Player player) {
+        if (live) {
+            return player.getLocation();
+        }
+        if (location == null) {
+            location = player.getLocation();
+        }
+        return location;
+    }
+
+    public World getWorld(final Player player) {
+        if (live) {
+            return player.getWorld();
+        }
+        if (world == null) {
+            world = player.getWorld();
+        }
+        return world;
+    }
+
+    /**
+     * Only read by snapshots that are not captured, captured ones hold everything they need from it.
+     */
+    private PlayerInventory getInventory(final Player player) {
+        if (live) {
+            return player.getInventory();
+        }
+        if (inventory == null) {
+            inventory = player.getInventory();
+        }
+        return inventory;
+    }
+
+    /**
+     * @return The item in the main hand, a copy on captured snapshots so it must not be mutated
+     */
+    public ItemStack getItemInMainHand(final Player player) {
+        if (live) {
+            return PlayerUtil.itemInHand(player.getInventory());
+        }
+        if (mainHand == null) {
+            mainHand = PlayerUtil.itemInHand(getInventory(player));
+        }
+        return mainHand;
+    }
+
+    public ItemStack getItemInOffHand(final Player player) {
+        if (live) {
+            return PlayerUtil.itemInOffHand(player.getInventory());
+        }
+        if (offHand == null) {
+            offHand = PlayerUtil.itemInOffHand(getInventory(player));
+        }
+        return offHand;
+    }
+
+    public ItemStack getHelmet(final Player player) {
+        if (live) {
+            return player.getInventory().getHelmet();
+        }
+        readArmor(player);
+        return helmet;
+    }
+
+    public ItemStack getChestplate(final Player player) {
+        if (live) {
+            return player.getInventory().getChestplate();
+        }
+        readArmor(player);
+        return chestplate;
+    }
+
+    public ItemStack getLeggings(final Player player) {
+        if (live) {
+            return player.getInventory().getLeggings();
+        }
+        readArmor(player);
+        return leggings;
+    }
+
+    public ItemStack getBoots(final Player player) {
+        if (live) {
+            return player.getInventory().getBoots();
+        }
+        readArmor(player);
+        return boots;
+    }
+
+    private void readArmor(final Player player) {
+        if (!armorRead) {
+            final PlayerInventory inventory = getInventory(player);
+            helmet = inventory.getHelmet();
+            chestplate = inventory.getChestplate();
+            leggings = inventory.getLeggings();
+            boots = inventory.getBoots();
+            armorRead = true;
+        }
+    }
+
+    public int getEmptySlots(final Player player) {
+        if (live) {
+            return PlayerUtil.getEmptySlots(player.getInventory());
+        }
+        if (emptySlots == UNSET) {
+            emptySlots = PlayerUtil.getEmptySlots(getInventory(player));
+        }
+        return emptySlots;
+    }
+
+    public boolean hasEmptySlot(final Player player) {
+        if (live) {
+            return player.getInventory().firstEmpty() > -1;
+        }
+        if (hasEmptySlot == null) {
+            hasEmptySlot = getInventory(player).firstEmpty() > -1;
+        }
+        return hasEmptySlot;
+    }
+
+    public long getWorldTime(final Player player) {
+        if (live) {
+            return player.getWorld().getTime();
+        }
+        if (worldTime == UNSET) {
+            worldTime = getWorld(player).getTime();
+        }
+        return worldTime;
+    }
+
+    public int getThunderDuration(final Player player) {
+        if (live) {
+            return player.getWorld().getThunderDuration();
+        }
+        if (thunderDuration == UNSET) {
+            thunderDuration = getWorld(player).getThunderDuration();
+        }
+        return thunderDuration;
+    }
+
+    public int getWeatherDuration(final Player player) {
+        if (live) {
+            return player.getWorld().getWeatherDuration();
+        }
+        if (weatherDuration == UNSET) {
+            weatherDuration = getWorld(player).getWeatherDuration();
+        }
+        return weatherDuration;
+    }
+
+    public int getLightLevel(final Player player) {
+        if (live) {
+            return readLightLevel(player, player.getLocation());
+        }
+        if (lightLevel == UNSET) {
+            lightLevel = readLightLevel(player, getLocation(player));
+        }
+        return lightLevel;
+    }
+
+    public String getBiome(final Player player) {
+        if (live) {
+            return readBiome(player, player.getLocation());
+        }
+        if (biome == null) {
+            biome = readBiome(player, getLocation(player));
+        }
+        return biome;
+    }
+
+    public String getBlockUnderneath(final Player player) {
+        if (live) {
+            return readBlockUnderneath(player, player.getLocation());
+        }
+        if (blockUnderneath == null) {
+            blockUnderneath = readBlockUnderneath(player, getLocation(player));
+        }
+        return blockUnderneath;
+    }
+
+    private int readLightLevel(final Player player, final Location location) {
+        return blocks.isEnabled() ? blocks.of(player, location).getLightLevel() : location.getBlock().getLightLevel();
+    }
+
+    private String readBiome(final Player player, final Location location) {
+        return blocks.isEnabled() ? blocks.of(player, location).getBiome() : PlayerUtil.getBiome(location);
+    }
+
+    private String readBlockUnderneath(final Player player, final Location location) {
+        return blocks.isEnabled()
+                ? blocks.of(player, location).getBlockUnderneath()
+                : String.valueOf(location.clone().subtract(0, 1, 0).getBlock().getType());
+    }
+
+    private static ItemStack copy(final ItemStack item) {
+        return item == null ? null : item.clone();
+    }
+}
@@ -0,0 +1,140 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out {@link PlayerSnapshot}s, reusing one per player until {@link #tick()} advances the server tick.
+ * Only requests on the thread that owns the player share these; requests from any other thread, and every request
+ * while disabled, get the {@link PlayerSnapshot#live(BlockCache) live} snapshot, which keeps placeholders fully live.
+ * <p>
+ * In async mode the main thread additionally {@link PlayerSnapshot#capture(Player, long, BlockCache) captures} every online player
+ * each tick and publishes the result with a single volatile write. Requests from other threads are only served from
+ * these published snapshots and never touch the world; a player without one yet resolves to an empty value.
+ * <p>
+ * On region-threaded servers no single thread may capture every player, so each player is captured by a task on the
+ * thread that owns them and published on its own. Requests from any other thread are always served from those.
+ */
+public final class PlayerSnapshots {
+
+    private final Map<UUID, PlayerSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final BlockCache blocks;
+    private final PlayerSnapshot live;
+
+    private final Map<UUID, PlayerSnapshot> regional = new ConcurrentHashMap<>();
+    private volatile Map<UUID, PlayerSnapshot> published = Collections.emptyMap();
+
+    private volatile TaskScheduler scheduler = new BukkitTaskScheduler();
+
+    private volatile boolean enabled;
+    private volatile boolean async;
+    private volatile long tick;
+
+    public PlayerSnapshots(final BlockCache blocks) {
+        this.blocks = blocks;
+        this.live = PlayerSnapshot.live(blocks);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+        snapshots.clear();
+    }
+
+    public void setScheduler(final TaskScheduler scheduler) {
+        this.scheduler = scheduler;
+        regional.clear();
+    }
+
+    public void setAsync(final boolean async) {
+        this.async = async;
+        published = Collections.emptyMap();
+    }
+
+    /**
+     * @return Whether a tick task has to drive these snapshots
+     */
+    public boolean isTicking() {
+        return enabled || async;
+    }
+
+    /**
+     * Advances the tick, called once per server tick from the main thread.
+     */
+    public void tick() {
+        final long now = ++tick;
+        if (async && !scheduler.isRegionThreaded()) {
+            publish(now);
+        }
+    }
+
+    /**
+     * Captures and publishes one player, called from the thread that owns them on region-threaded servers.
+     */
+    public void capture(final Player player) {
+        regional.put(player.getUniqueId(), PlayerSnapshot.capture(player, tick, blocks));
+    }
+
+    private void publish(final long now) {
+        final Map<UUID, PlayerSnapshot> captured = new HashMap<>();
+        for (final Player player : Bukkit.getOnlinePlayers()) {
+            captured.put(player.getUniqueId(), PlayerSnapshot.capture(player, now, blocks));
+        }
+        published = Collections.unmodifiableMap(captured);
+    }
+
+    /**
+     * @return The snapshot to resolve placeholders of the player with, or null if none may be used on this thread
+     */
+    public PlayerSnapshot of(final Player player) {
+        final TaskScheduler scheduler = this.scheduler;
+        if (scheduler.isRegionThreaded()) {
+            if (!scheduler.owns(player)) {
+                return regional.get(player.getUniqueId());
+            }
+        } else if (async && !scheduler.owns(player)) {
+            return published.get(player.getUniqueId());
+        }
+        // shared snapshots fill their fields lazily without synchronization, so only the owning thread may reuse them
+        if (!enabled || !scheduler.owns(player)) {
+            return live;
+        }
+
+        final long now = tick;
+        PlayerSnapshot snapshot = snapshots.get(player.getUniqueId());
+        if (snapshot == null || snapshot.getTick() != now || snapshot.getPlayer() != player) {
+            snapshot = new PlayerSnapshot(player, now, blocks);
+            snapshots.put(player.getUniqueId(), snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Like {@link #of(Player)}, except that instead of the live snapshot a batch gets one of its own, so the
+     * identifiers in it share what was read.
+     */
+    public PlayerSnapshot ofBatch(final Player player) {
+        final PlayerSnapshot snapshot = of(player);
+        return snapshot == live ? new PlayerSnapshot(player, -1, blocks) : snapshot;
+    }
+
+    public void remove(final UUID uuid) {
+        snapshots.remove(uuid);
+        regional.remove(uuid);
+    }
+
+    public void clear() {
+        snapshots.clear();
+        regional.clear();
+        published = Collections.emptyMap();
+    }
+}
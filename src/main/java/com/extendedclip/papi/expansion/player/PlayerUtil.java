@@ -1,22 +1,20 @@
 package com.extendedclip.papi.expansion.player;
 
-import me.clip.placeholderapi.PlaceholderAPI;
-import me.clip.placeholderapi.PlaceholderAPIPlugin;
-import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
+import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.potion.PotionEffectType;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Locale;
-import java.util.function.Function;
-import java.util.logging.Level;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /*
  *
@@ -44,135 +42,48 @@ public final class PlayerUtil {
     public static final int ticksPerDay = 24000;
     public static final int ticksPerHour = 1000;
     public static final double ticksPerMinute = 1000d / 60d;
-    private static final SimpleDateFormat twentyFour = new SimpleDateFormat("HH:mm", Locale.ENGLISH);
-    private static final SimpleDateFormat twelve = new SimpleDateFormat("h:mm aa", Locale.ENGLISH);
+    private static final Map<String, String> CAPITALIZED_BIOMES = new ConcurrentHashMap<>();
     private static final BlockFace[] radial = { BlockFace.NORTH, BlockFace.NORTH_EAST, BlockFace.EAST, BlockFace.SOUTH_EAST, BlockFace.SOUTH, BlockFace.SOUTH_WEST, BlockFace.WEST, BlockFace.NORTH_WEST };
 
     private PlayerUtil() { }
 
-    private static final Function<Player, Integer> PLAYER_GET_PING = new Function<Player, Integer>() {
-
-        private Field ping;
-        private Method getHandle;
-
-        @Override
-        public Integer apply(final Player player) {
-            // 1.17 added Player#getPing, and we can use that directly
-            if (VersionHelper.IS_1_17_OR_NEWER) {
-                return player.getPing();
-            }
-
-            // For versions before 1.17 we need to use reflection
-            if (ping == null) {
-                try {
-                    cacheReflection(player);
-                } catch (InvocationTargetException | NoSuchMethodException | IllegalAccessException | NoSuchFieldException ex) {
-                    ex.printStackTrace();
-                }
-            }
-
-            try {
-                return ping.getInt(getHandle.invoke(player));
-            } catch (final IllegalAccessException | InvocationTargetException ex) {
-                PlaceholderAPIPlugin.getInstance()
-                                .getLogger()
-                                .log(Level.SEVERE, "Could not get the ping of " + player.getName() + ", using -1 as fallback value", ex);
-            }
-            return -1;
-        }
-
-
-        private void cacheReflection(final Player player) throws NoSuchFieldException, NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-            getHandle = player.getClass().getDeclaredMethod("getHandle");
-            getHandle.setAccessible(true);
-
-            final Object entityPlayer = getHandle.invoke(player);
-            ping = entityPlayer.getClass().getDeclaredField("ping");
-            ping.setAccessible(true);
-        }
-    };
-
-    private static final Function<Player, String> PLAYER_GET_LOCALE = new Function<Player, String>() {
-
-        private Field locale;
-        private Method getHandle;
-
-        @Override
-        public String apply(final Player player) {
-            if (locale == null) {
-                try {
-                    cacheReflection(player);
-                } catch (InvocationTargetException | NoSuchMethodException | IllegalAccessException | NoSuchFieldException ex) {
-                    ex.printStackTrace();
-                }
-            }
-
-            try {
-                final Object entityPlayer = getHandle.invoke(player);
-                return (String) locale.get(entityPlayer);
-            } catch (final IllegalAccessException | InvocationTargetException ex) {
-                PlaceholderAPIPlugin.getInstance()
-                        .getLogger()
-                        .log(Level.SEVERE, "Could not get the locale of " + player.getName() + ", using 'en_US' as fallback value", ex);
-            }
-            return "en_US";
-        }
-
-
-        private void cacheReflection(final Player player) throws NoSuchFieldException, NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-            getHandle = player.getClass().getDeclaredMethod("getHandle");
-            getHandle.setAccessible(true);
-
-            final Object entityPlayer = getHandle.invoke(player);
-
-            if (VersionHelper.IS_1_20_4_OR_NEWER) {
-              locale = entityPlayer.getClass().getField("cO");
-            } else if (VersionHelper.IS_1_20_2_OR_NEWER) {
-              locale = entityPlayer.getClass().getField("cM");
-            } else {
-              locale = entityPlayer.getClass().getField("locale");
-            }
-        }
-    };
-
-
     public static int getPing(final Player player) {
-        return PLAYER_GET_PING.apply(player);
+        return PlayerAccessors.ping(player);
     }
 
     public static String getLocale(final Player player) {
-        return PLAYER_GET_LOCALE.apply(player);
+        return PlayerAccessors.locale(player);
+    }
+
+    /**
+     * @return How long the given number of ticks, at least one, last on a server keeping up, in nanoseconds
+     */
+    public static long ticksToNanos(final int ticks) {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(1, ticks) * 50L);
     }
 
     public static String format12(long ticks) {
-        try {
-            return twelve.format(twentyFour.parse(ticksToTime(ticks)));
-        } catch (ParseException e) {
-            return ticksToTime(ticks);
-        }
+        return TimeTable.TWELVE.format(ticks);
     }
 
     public static String format24(long ticks) {
-        return ticksToTime(ticks);
+        return TimeTable.TWENTY_FOUR.format(ticks);
     }
 
-    private static String ticksToTime(long ticks) {
-        ticks = ticks - ticksAtMidnight + ticksPerDay;
-        long hours = ticks / ticksPerHour;
-        ticks -= hours * ticksPerHour;
-        long mins = (long) Math.floor(ticks / ticksPerMinute);
-        if (hours >= 24) {
-            hours = hours - 24;
-        }
-        return (hours < 10 ? "0" + hours : hours) + ":" + (mins < 10 ? "0" + mins : mins);
+    public static BlockFace getDirection(Player player) {
+        return getDirection(player.getLocation());
     }
 
-    public static BlockFace getDirection(Player player) {
-        return radial[Math.round(player.getLocation().getYaw() / 45f) & 0x7].getOppositeFace();
+    public static BlockFace getDirection(Location location) {
+        return radial[Math.round(location.getYaw() / 45f) & 0x7].getOppositeFace();
     }
 
     public static String getXZDirection(Player player) {
-        double rotation = player.getLocation().getYaw();
+        return getXZDirection(player.getLocation());
+    }
+
+    public static String getXZDirection(Location location) {
+        double rotation = location.getYaw();
         if (rotation < 0.0D) {
             rotation += 360.0D;
         }
@@ -191,10 +102,63 @@ public final class PlayerUtil {
     }
 
     public static ItemStack itemInHand(Player p) {
+        return itemInHand(p.getInventory());
+    }
+
+    public static ItemStack itemInHand(PlayerInventory inv) {
+        return Capabilities.itemInMainHand(inv);
+    }
+
+    /**
+     * @return The item in the off hand, air on servers without one
+     */
+    public static ItemStack itemInOffHand(PlayerInventory inv) {
+        return Capabilities.HAS_OFF_HAND ? inv.getItemInOffHand() : new ItemStack(Material.AIR);
+    }
+
+    /**
+     * Resolves a potion effect by its legacy name (SPEED) or namespaced key (minecraft:speed)
+     *
+     * @return The effect, or null if there is none by that name
+     */
+    public static PotionEffectType potionEffect(String name) {
+        final PotionEffectType legacy = PotionEffectType.getByName(name);
+        if (legacy != null) {
+            return legacy;
+        }
+
+        final NamespacedKey key = namespacedKey(name);
         try {
-            return p.getInventory().getItemInMainHand();
+            return key == null ? null : PotionEffectType.getByKey(key);
         } catch (NoSuchMethodError e) {
-            return p.getInventory().getItemInHand();
+            return null;
+        }
+    }
+
+    /**
+     * Resolves an enchantment by its legacy name (DAMAGE_ALL) or namespaced key (minecraft:sharpness)
+     *
+     * @return The enchantment, or null if there is none by that name
+     */
+    public static Enchantment enchantment(String name) {
+        final Enchantment legacy = Enchantment.getByName(name);
+        if (legacy != null) {
+            return legacy;
+        }
+
+        final NamespacedKey key = namespacedKey(name);
+        try {
+            return key == null ? null : Enchantment.getByKey(key);
+        } catch (NoSuchMethodError e) {
+            return null;
+        }
+    }
+
+    private static NamespacedKey namespacedKey(String name) {
+        try {
+            return NamespacedKey.fromString(name.toLowerCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NoSuchMethodError e) {
+            return null;
         }
     }
 
@@ -203,13 +167,16 @@ public final class PlayerUtil {
     }
 
     public static int getEmptySlots(Player p) {
+        return getEmptySlots(p.getInventory());
+    }
+
+    public static int getEmptySlots(PlayerInventory inv) {
         int slots = 0;
-        PlayerInventory inv = p.getInventory();
         for (ItemStack is : inv.getContents()) {
             if (is == null) slots++;
         }
 
-        if (!Bukkit.getBukkitVersion().contains("1.7") && !Bukkit.getBukkitVersion().contains("1.8")) {
+        if (Capabilities.HAS_OFF_HAND) {
             if (inv.getItemInOffHand() == null || inv.getItemInOffHand().getType() == Material.AIR) slots--;
             if (inv.getHelmet() == null) slots--;
             if (inv.getChestplate() == null) slots--;
@@ -243,15 +210,32 @@ public final class PlayerUtil {
     }
 
     public static String getBiome(Player p) {
-        if (VersionHelper.IS_1_21_3_OR_NEWER) {
-            return p.getLocation().getBlock().getBiome().name();
-        }
+        return getBiome(p.getLocation());
+    }
+
+    public static String getBiome(Location location) {
+        return getBiome(location.getBlock());
+    }
 
-        return String.valueOf(p.getLocation().getBlock().getBiome());
+    public static String getBiome(Block block) {
+        return Capabilities.biome(block);
     }
 
     public static String getCapitalizedBiome(Player p) {
-        String[] biomeWords = getBiome(p).split("_");
+        return getCapitalizedBiome(p.getLocation());
+    }
+
+    public static String getCapitalizedBiome(Location location) {
+        return capitalizeBiome(getBiome(location));
+    }
+
+    public static String capitalizeBiome(String biome) {
+        // there are only so many biomes, so every display name is kept once computed
+        return CAPITALIZED_BIOMES.computeIfAbsent(biome, PlayerUtil::capitalize);
+    }
+
+    private static String capitalize(String biome) {
+        String[] biomeWords = biome.split("_");
         for (int i = 0; i < biomeWords.length; i++) {
             biomeWords[i] = biomeWords[i].substring(0, 1).toUpperCase() + biomeWords[i].substring(1).toLowerCase();
         }
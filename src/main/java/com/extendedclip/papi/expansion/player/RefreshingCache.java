@@ -0,0 +1,145 @@
+package com.extendedclip.papi.expansion.player;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * A bounded, least recently used cache of values read per player on the given executor. Until a player's value has
+ * been read it is unavailable; after that stale or invalidated values keep being served while a refresh runs.
+ *
+ * @param <C> What the reader needs to read a player, handed over with each request
+ * @param <V> The values kept
+ */
+final class RefreshingCache<C, V> {
+
+    // guarded by itself, access ordered so the eldest entry is the least recently used one
+    private final LinkedHashMap<UUID, Cached<V>> entries = new LinkedHashMap<UUID, Cached<V>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<UUID, Cached<V>> eldest) {
+            return size() > maxSize;
+        }
+    };
+    private final Set<UUID> refreshing = ConcurrentHashMap.newKeySet();
+    // guarded by entries, counts invalidations so reads that overlapped one are not served as fresh
+    private long generation;
+
+    private final Function<C, V> reader;
+
+    private volatile int maxSize = 1;
+    private volatile long ttlNanos;
+    private volatile Executor executor = Runnable::run;
+
+    /**
+     * @param reader Reads a player on the executor, returns null if there is nothing to keep
+     */
+    RefreshingCache(final Function<C, V> reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @param size The most players kept
+     * @param ttl How long values are served before they are read again, in ticks
+     * @param executor Runs the reads, off the main thread
+     */
+    void configure(final int size, final int ttl, final Executor executor) {
+        this.maxSize = Math.max(1, size);
+        this.ttlNanos = PlayerUtil.ticksToNanos(ttl);
+        this.executor = executor;
+        clear();
+    }
+
+    /**
+     * @return The player's value, or null while it is being read for the first time
+     */
+    V get(final UUID uuid, final C context) {
+        final Cached<V> cached;
+        synchronized (entries) {
+            cached = entries.get(uuid);
+        }
+
+        if (cached == null || cached.invalidated || System.nanoTime() - cached.loaded >= ttlNanos) {
+            refresh(uuid, context);
+        }
+        return cached == null ? null : cached.value;
+    }
+
+    /**
+     * Reads the player in the background, unless that is already happening.
+     */
+    void refresh(final UUID uuid, final C context) {
+        if (!refreshing.add(uuid)) {
+            return;
+        }
+
+        final long generation;
+        synchronized (entries) {
+            generation = this.generation;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    final V value = reader.apply(context);
+                    if (value != null) {
+                        put(uuid, value, generation);
+                    }
+                } finally {
+                    refreshing.remove(uuid);
+                }
+            });
+        } catch (final RuntimeException ex) {
+            // the executor is gone (plugin disabling), the next request tries again
+            refreshing.remove(uuid);
+        }
+    }
+
+    void invalidate(final UUID uuid) {
+        synchronized (entries) {
+            generation++;
+            final Cached<V> cached = entries.get(uuid);
+            if (cached != null) {
+                cached.invalidated = true;
+            }
+        }
+    }
+
+    void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            for (final Cached<V> cached : entries.values()) {
+                cached.invalidated = true;
+            }
+        }
+    }
+
+    void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private void put(final UUID uuid, final V value, final long generation) {
+        final Cached<V> cached = new Cached<>(value, System.nanoTime());
+        synchronized (entries) {
+            // may have been read before the change the invalidation was for
+            cached.invalidated = generation != this.generation;
+            entries.put(uuid, cached);
+        }
+    }
+
+    private static final class Cached<V> {
+
+        private final V value;
+        private final long loaded;
+        private volatile boolean invalidated;
+
+        private Cached(final V value, final long loaded) {
+            this.value = value;
+            this.loaded = loaded;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Schedules through the global region and entity schedulers of region-threaded servers. Those APIs are not part of
+ * the Spigot API this expansion compiles against, so they are looked up once into method handles.
+ */
+public final class RegionTaskScheduler implements TaskScheduler {
+
+    private static final String REGIONIZED_SERVER = "io.papermc.paper.threadedregions.RegionizedServer";
+
+    private final MethodHandle isOwnedByCurrentRegion;
+    private final MethodHandle globalScheduler;
+    private final MethodHandle globalRunAtFixedRate;
+    private final MethodHandle globalRunDelayed;
+    private final MethodHandle asyncScheduler;
+    private final MethodHandle asyncRunAtFixedRate;
+    private final MethodHandle asyncRunNow;
+    private final MethodHandle entityScheduler;
+    private final MethodHandle entityRunAtFixedRate;
+    private final MethodHandle cancel;
+
+    RegionTaskScheduler() {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            final Class<?> globalType = Class.forName("io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler");
+            final Class<?> entityType = Class.forName("io.papermc.paper.threadedregions.scheduler.EntityScheduler");
+            final Class<?> asyncType = Class.forName("io.papermc.paper.threadedregions.scheduler.AsyncScheduler");
+            final Class<?> taskType = Class.forName("io.papermc.paper.threadedregions.scheduler.ScheduledTask");
+
+            isOwnedByCurrentRegion = lookup.findStatic(Bukkit.class, "isOwnedByCurrentRegion", MethodType.methodType(boolean.class, Entity.class));
+            globalScheduler = lookup.findStatic(Bukkit.class, "getGlobalRegionScheduler", MethodType.methodType(globalType));
+            globalRunAtFixedRate = lookup.findVirtual(globalType, "runAtFixedRate",
+                    MethodType.methodType(taskType, Plugin.class, Consumer.class, long.class, long.class));
+            globalRunDelayed = lookup.findVirtual(globalType, "runDelayed",
+                    MethodType.methodType(taskType, Plugin.class, Consumer.class, long.class));
+            asyncScheduler = lookup.findStatic(Bukkit.class, "getAsyncScheduler", MethodType.methodType(asyncType));
+            asyncRunAtFixedRate = lookup.findVirtual(asyncType, "runAtFixedRate",
+                    MethodType.methodType(taskType, Plugin.class, Consumer.class, long.class, long.class, TimeUnit.class));
+            asyncRunNow = lookup.findVirtual(asyncType, "runNow", MethodType.methodType(taskType, Plugin.class, Consumer.class));
+            entityScheduler = lookup.findVirtual(Entity.class, "getScheduler", MethodType.methodType(entityType));
+            entityRunAtFixedRate = lookup.findVirtual(entityType, "runAtFixedRate",
+                    MethodType.methodType(taskType, Plugin.class, Consumer.class, Runnable.class, long.class, long.class));
+            cancel = lookup.findVirtual(taskType, "cancel", MethodType.methodType(Class.forName(taskType.getName() + "$CancelledState")));
+        } catch (final ReflectiveOperationException ex) {
+            throw new IllegalStateException("Region scheduler API is incomplete", ex);
+        }
+    }
+
+    static boolean isSupported() {
+        try {
+            Class.forName(REGIONIZED_SERVER);
+            return true;
+        } catch (final ClassNotFoundException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isRegionThreaded() {
+        return true;
+    }
+
+    @Override
+    public boolean owns(final Player player) {
+        try {
+            return (boolean) isOwnedByCurrentRegion.invoke((Entity) player);
+        } catch (final Throwable ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public Task runGlobalTimer(final Plugin plugin, final Runnable task, final long delay, final long period) {
+        try {
+            final Object scheduler = globalScheduler.invoke();
+            return task(globalRunAtFixedRate.invoke(scheduler, plugin, consumer(task), Math.max(1L, delay), period));
+        } catch (final Throwable ex) {
+            throw new IllegalStateException("Could not schedule a global task", ex);
+        }
+    }
+
+    @Override
+    public void runGlobalLater(final Plugin plugin, final Runnable task, final long delay) {
+        try {
+            globalRunDelayed.invoke(globalScheduler.invoke(), plugin, consumer(task), Math.max(1L, delay));
+        } catch (final Throwable ex) {
+            throw new IllegalStateException("Could not schedule a global task", ex);
+        }
+    }
+
+    @Override
+    public void runAsync(final Plugin plugin, final Runnable task) {
+        try {
+            asyncRunNow.invoke(asyncScheduler.invoke(), plugin, consumer(task));
+        } catch (final Throwable ex) {
+            throw new IllegalStateException("Could not run an async task", ex);
+        }
+    }
+
+    @Override
+    public Task runAsyncTimer(final Plugin plugin, final Runnable task, final long delay, final long period) {
+        try {
+            final Object scheduler = asyncScheduler.invoke();
+            // the async scheduler counts in time units rather than ticks
+            return task(asyncRunAtFixedRate.invoke(scheduler, plugin, consumer(task), Math.max(1L, delay) * 50L, period * 50L, TimeUnit.MILLISECONDS));
+        } catch (final Throwable ex) {
+            throw new IllegalStateException("Could not schedule an async task", ex);
+        }
+    }
+
+    @Override
+    public Task runPlayerTimer(final Plugin plugin, final Player player, final Runnable task, final long delay, final long period) {
+        try {
+            final Object scheduler = entityScheduler.invoke((Entity) player);
+            // null if the player was removed in the meantime
+            final Object scheduled = entityRunAtFixedRate.invoke(scheduler, plugin, consumer(task), null, Math.max(1L, delay), period);
+            return scheduled == null ? () -> { } : task(scheduled);
+        } catch (final Throwable ex) {
+            throw new IllegalStateException("Could not schedule a task for " + player.getName(), ex);
+        }
+    }
+
+    private static Consumer<Object> consumer(final Runnable task) {
+        return scheduled -> task.run();
+    }
+
+    private Task task(final Object scheduled) {
+        return () -> {
+            try {
+                cancel.invoke(scheduled);
+            } catch (final Throwable ignored) {
+                // cancelling a finished task is fine
+            }
+        };
+    }
+}
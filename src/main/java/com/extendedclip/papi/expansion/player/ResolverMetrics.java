@@ -0,0 +1,207 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.Bukkit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts placeholder requests and their latency per identifier family, where prefixed identifiers such as
+ * {@code has_permission_<perm>} share one family. Recording only touches {@link LongAdder}s, so requests from many
+ * threads don't contend on it. While disabled nothing is recorded.
+ */
+public final class ResolverMetrics {
+
+    // prefixes whose argument is dropped from the family name, the ping statistics are checked first
+    private static final String[] STATISTICS = {"ping_avg", "ping_min", "ping_max", "ping_p95", "ping_jitter"};
+    private static final String[] PREFIXES = {
+            "has_permission_", "has_potioneffect_", "item_in_hand_level_", "item_in_offhand_level_", "colored_ping_", "ping_",
+            "statistic_"
+    };
+
+    // identifiers come from user input, past this many families the rest are counted together
+    private static final int MAX_FAMILIES = 1024;
+    private static final String OTHER = "other";
+
+    private final Map<String, Family> byIdentifier = new ConcurrentHashMap<>();
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void record(final String identifier, final long nanos) {
+        Family family = byIdentifier.get(identifier);
+        if (family == null) {
+            family = family(familyName(identifier));
+            if (byIdentifier.size() < MAX_FAMILIES * 4) {
+                byIdentifier.putIfAbsent(identifier, family);
+            }
+        }
+        family.record(nanos, Bukkit.isPrimaryThread());
+    }
+
+    private Family family(final String name) {
+        final Family family = families.get(name);
+        if (family != null) {
+            return family;
+        }
+        return families.computeIfAbsent(families.size() < MAX_FAMILIES ? name : OTHER, Family::new);
+    }
+
+    static String familyName(final String identifier) {
+        for (final String statistic : STATISTICS) {
+            if (statistic.equals(identifier)) {
+                return identifier;
+            }
+        }
+        for (final String prefix : PREFIXES) {
+            if (identifier.startsWith(prefix)) {
+                return prefix + "*";
+            }
+        }
+        return identifier;
+    }
+
+    public Collection<Family> getFamilies() {
+        return families.values();
+    }
+
+    public void reset() {
+        byIdentifier.clear();
+        families.clear();
+    }
+
+    /**
+     * Writes every family in the Prometheus text exposition format.
+     */
+    public void writePrometheus(final Appendable out) throws IOException {
+        final List<Family> snapshot = new ArrayList<>(families.values());
+
+        out.append("# HELP player_expansion_requests_total Placeholder requests per identifier family and thread.\n");
+        out.append("# TYPE player_expansion_requests_total counter\n");
+        for (final Family family : snapshot) {
+            final String label = escape(family.getName());
+            out.append("player_expansion_requests_total{family=\"").append(label).append("\",thread=\"main\"} ")
+                    .append(Long.toString(family.getMainThreadCalls())).append('\n');
+            out.append("player_expansion_requests_total{family=\"").append(label).append("\",thread=\"async\"} ")
+                    .append(Long.toString(family.getAsyncCalls())).append('\n');
+        }
+
+        out.append("# HELP player_expansion_request_duration_seconds Time spent resolving placeholders per identifier family.\n");
+        out.append("# TYPE player_expansion_request_duration_seconds histogram\n");
+        for (final Family family : snapshot) {
+            final String label = escape(family.getName());
+            long cumulative = 0;
+            for (int bucket = 0; bucket < Family.BUCKETS - 1; bucket++) {
+                cumulative += family.buckets[bucket].sum();
+                out.append("player_expansion_request_duration_seconds_bucket{family=\"").append(label).append("\",le=\"")
+                        .append(Double.toString(Family.upperBound(bucket) / 1e9)).append("\"} ")
+                        .append(Long.toString(cumulative)).append('\n');
+            }
+            final long count = cumulative + family.buckets[Family.BUCKETS - 1].sum();
+            out.append("player_expansion_request_duration_seconds_bucket{family=\"").append(label).append("\",le=\"+Inf\"} ")
+                    .append(Long.toString(count)).append('\n');
+            out.append("player_expansion_request_duration_seconds_sum{family=\"").append(label).append("\"} ")
+                    .append(Double.toString(family.totalNanos.sum() / 1e9)).append('\n');
+            out.append("player_expansion_request_duration_seconds_count{family=\"").append(label).append("\"} ")
+                    .append(Long.toString(count)).append('\n');
+        }
+    }
+
+    private static String escape(final String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * The counters of one identifier family. Latencies go into power of two buckets, from 256ns up to 17s.
+     */
+    public static final class Family {
+
+        private static final int MIN_BITS = 8;
+        private static final int MAX_BITS = 34;
+        static final int BUCKETS = MAX_BITS - MIN_BITS + 1;
+
+        private final String name;
+        private final LongAdder mainThread = new LongAdder();
+        private final LongAdder async = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        private Family(final String name) {
+            this.name = name;
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        private void record(final long nanos, final boolean main) {
+            (main ? mainThread : async).increment();
+            totalNanos.add(nanos);
+
+            final int bits = 64 - Long.numberOfLeadingZeros(Math.max(0L, nanos));
+            buckets[Math.min(Math.max(bits, MIN_BITS), MAX_BITS) - MIN_BITS].increment();
+        }
+
+        /**
+         * @return The exclusive upper bound of a bucket in nanoseconds
+         */
+        private static long upperBound(final int bucket) {
+            return 1L << (bucket + MIN_BITS);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCalls() {
+            return mainThread.sum() + async.sum();
+        }
+
+        public long getMainThreadCalls() {
+            return mainThread.sum();
+        }
+
+        public long getAsyncCalls() {
+            return async.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        /**
+         * @param quantile Between 0 and 1
+         * @return The upper bound of the bucket the quantile falls in, in nanoseconds
+         */
+        public long quantile(final double quantile) {
+            final long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+
+            final long rank = (long) Math.ceil(quantile * total);
+            long cumulative = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                cumulative += counts[i];
+                if (cumulative >= rank && cumulative > 0) {
+                    return upperBound(i);
+                }
+            }
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Statistic;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The argument of a {@code statistic_<STAT>} or {@code statistic_<STAT>_<MATERIAL|ENTITY>} placeholder, resolved to
+ * the statistic and its qualifier, along with where the statistic is kept in the player's stats file.
+ */
+public final class StatisticKey {
+
+    private static final Map<String, Statistic> STATISTICS = byName(Statistic.values());
+    private static final Map<String, EntityType> ENTITIES = byName(EntityType.values());
+
+    // substatistics are kept per category, named after the vanilla statistic types
+    private static final Map<Statistic, String> CATEGORIES = new HashMap<>();
+    // untyped statistics whose vanilla name differs from the Bukkit one, as mapped by CraftStatistic
+    private static final Map<String, String[]> CUSTOM_NAMES = new HashMap<>();
+
+    static {
+        category("MINE_BLOCK", "mined");
+        category("CRAFT_ITEM", "crafted");
+        category("USE_ITEM", "used");
+        category("BREAK_ITEM", "broken");
+        category("PICKUP", "picked_up");
+        category("DROP", "dropped");
+        category("KILL_ENTITY", "killed");
+        category("ENTITY_KILLED_BY", "killed_by");
+
+        // renamed in 1.17, older stats files still use the first name
+        CUSTOM_NAMES.put("PLAY_ONE_MINUTE", new String[]{"minecraft:play_one_minute", "minecraft:play_time"});
+        CUSTOM_NAMES.put("SNEAK_TIME", new String[]{"minecraft:sneak_time", "minecraft:crouch_time"});
+        CUSTOM_NAMES.put("DROP_COUNT", new String[]{"minecraft:drop"});
+        CUSTOM_NAMES.put("CAKE_SLICES_EATEN", new String[]{"minecraft:eat_cake_slice"});
+        CUSTOM_NAMES.put("CAULDRON_FILLED", new String[]{"minecraft:fill_cauldron"});
+        CUSTOM_NAMES.put("CAULDRON_USED", new String[]{"minecraft:use_cauldron"});
+        CUSTOM_NAMES.put("ARMOR_CLEANED", new String[]{"minecraft:clean_armor"});
+        CUSTOM_NAMES.put("BANNER_CLEANED", new String[]{"minecraft:clean_banner"});
+        CUSTOM_NAMES.put("BREWINGSTAND_INTERACTION", new String[]{"minecraft:interact_with_brewingstand"});
+        CUSTOM_NAMES.put("BEACON_INTERACTION", new String[]{"minecraft:interact_with_beacon"});
+        CUSTOM_NAMES.put("FURNACE_INTERACTION", new String[]{"minecraft:interact_with_furnace"});
+        CUSTOM_NAMES.put("CRAFTING_TABLE_INTERACTION", new String[]{"minecraft:interact_with_crafting_table"});
+        CUSTOM_NAMES.put("DROPPER_INSPECTED", new String[]{"minecraft:inspect_dropper"});
+        CUSTOM_NAMES.put("HOPPER_INSPECTED", new String[]{"minecraft:inspect_hopper"});
+        CUSTOM_NAMES.put("DISPENSER_INSPECTED", new String[]{"minecraft:inspect_dispenser"});
+        CUSTOM_NAMES.put("NOTEBLOCK_PLAYED", new String[]{"minecraft:play_noteblock"});
+        CUSTOM_NAMES.put("NOTEBLOCK_TUNED", new String[]{"minecraft:tune_noteblock"});
+        CUSTOM_NAMES.put("FLOWER_POTTED", new String[]{"minecraft:pot_flower"});
+        CUSTOM_NAMES.put("TRAPPED_CHEST_TRIGGERED", new String[]{"minecraft:trigger_trapped_chest"});
+        CUSTOM_NAMES.put("ENDERCHEST_OPENED", new String[]{"minecraft:open_enderchest"});
+        CUSTOM_NAMES.put("CHEST_OPENED", new String[]{"minecraft:open_chest"});
+        CUSTOM_NAMES.put("SHULKER_BOX_OPENED", new String[]{"minecraft:open_shulker_box"});
+        CUSTOM_NAMES.put("ITEM_ENCHANTED", new String[]{"minecraft:enchant_item"});
+        CUSTOM_NAMES.put("RECORD_PLAYED", new String[]{"minecraft:play_record"});
+    }
+
+    private final Statistic statistic;
+    private final Material material;
+    private final EntityType entity;
+    private final String category;
+    private final String[] names;
+
+    private StatisticKey(final Statistic statistic, final Material material, final EntityType entity,
+                         final String category, final String[] names) {
+        this.statistic = statistic;
+        this.material = material;
+        this.entity = entity;
+        this.category = category;
+        this.names = names;
+    }
+
+    /**
+     * Resolves an argument such as {@code JUMP}, {@code MINE_BLOCK_STONE} or {@code KILL_ENTITY_ZOMBIE}. Statistic
+     * names contain underscores themselves, so the longest statistic name the argument starts with wins.
+     *
+     * @return The statistic, or null if the argument names none or its qualifier doesn't fit it
+     */
+    public static StatisticKey parse(final String argument) {
+        final String upper = argument.toUpperCase(Locale.ROOT);
+        for (int end = upper.length(); end > 0; end = upper.lastIndexOf('_', end - 1)) {
+            final Statistic statistic = STATISTICS.get(upper.substring(0, end));
+            if (statistic == null) {
+                continue;
+            }
+
+            final String qualifier = end == upper.length() ? "" : argument.substring(end + 1);
+            final StatisticKey key = qualify(statistic, qualifier);
+            if (key != null) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private static StatisticKey qualify(final Statistic statistic, final String qualifier) {
+        switch (statistic.getType()) {
+            case UNTYPED: {
+                if (!qualifier.isEmpty()) {
+                    return null;
+                }
+                final String[] names = CUSTOM_NAMES.get(statistic.name());
+                return new StatisticKey(statistic, null, null, "minecraft:custom",
+                        names != null ? names : new String[]{"minecraft:" + statistic.name().toLowerCase(Locale.ROOT)});
+            }
+            case BLOCK:
+            case ITEM: {
+                final Material material = qualifier.isEmpty() ? null : Material.matchMaterial(qualifier);
+                if (material == null || (statistic.getType() == Statistic.Type.BLOCK ? !material.isBlock() : !material.isItem())) {
+                    return null;
+                }
+                return new StatisticKey(statistic, material, null, CATEGORIES.get(statistic), names(material.getKey()));
+            }
+            case ENTITY: {
+                final EntityType entity = ENTITIES.get(qualifier.toUpperCase(Locale.ROOT));
+                // UNKNOWN has no key, asking for it throws
+                if (entity == null || entity == EntityType.UNKNOWN) {
+                    return null;
+                }
+                return new StatisticKey(statistic, null, entity, CATEGORIES.get(statistic), names(entity.getKey()));
+            }
+            default:
+                return null;
+        }
+    }
+
+    public int get(final Player player) {
+        // resolved against Player, servers before 1.15.2 don't have these on OfflinePlayer
+        switch (statistic.getType()) {
+            case BLOCK:
+            case ITEM:
+                return player.getStatistic(statistic, material);
+            case ENTITY:
+                return player.getStatistic(statistic, entity);
+            default:
+                return player.getStatistic(statistic);
+        }
+    }
+
+    /**
+     * Reads the statistic through the API, which loads the whole stats file of an offline player on every call.
+     */
+    public int get(final OfflinePlayer player) {
+        switch (statistic.getType()) {
+            case BLOCK:
+            case ITEM:
+                return player.getStatistic(statistic, material);
+            case ENTITY:
+                return player.getStatistic(statistic, entity);
+            default:
+                return player.getStatistic(statistic);
+        }
+    }
+
+    /**
+     * @return The category object this statistic is kept in within the stats file, or null if it is unknown
+     */
+    String getCategory() {
+        return category;
+    }
+
+    /**
+     * @return The names this statistic may be kept under within its category
+     */
+    String[] getNames() {
+        return names;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StatisticKey)) {
+            return false;
+        }
+        final StatisticKey other = (StatisticKey) o;
+        return statistic == other.statistic && material == other.material && entity == other.entity;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(statistic, material, entity);
+    }
+
+    @Override
+    public String toString() {
+        final Object qualifier = material != null ? material : entity;
+        return qualifier == null ? statistic.name() : statistic.name() + '_' + qualifier;
+    }
+
+    private static void category(final String statistic, final String category) {
+        final Statistic resolved = STATISTICS.get(statistic);
+        if (resolved != null) {
+            CATEGORIES.put(resolved, "minecraft:" + category);
+        }
+    }
+
+    private static String[] names(final NamespacedKey key) {
+        return new String[]{key.toString()};
+    }
+
+    private static <E extends Enum<E>> Map<String, E> byName(final E[] values) {
+        final Map<String, E> map = new HashMap<>();
+        for (final E value : values) {
+            map.put(value.name(), value);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
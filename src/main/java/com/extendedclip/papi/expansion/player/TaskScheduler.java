@@ -0,0 +1,60 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Runs the expansion's tasks on the thread that owns what they touch. Servers with one main thread use
+ * {@link BukkitTaskScheduler}, region-threaded (Folia) servers {@link RegionTaskScheduler}, where each player belongs
+ * to the thread of the region they are in.
+ */
+public interface TaskScheduler {
+
+    /**
+     * @return A scheduler for the server this runs on, checked once when the expansion registers
+     */
+    static TaskScheduler detect() {
+        return RegionTaskScheduler.isSupported() ? new RegionTaskScheduler() : new BukkitTaskScheduler();
+    }
+
+    /**
+     * @return Whether players are owned by several region threads rather than one main thread
+     */
+    boolean isRegionThreaded();
+
+    /**
+     * @return Whether the current thread may read the player and the world around them
+     */
+    boolean owns(Player player);
+
+    /**
+     * Repeats a task that touches no player or world state.
+     */
+    Task runGlobalTimer(Plugin plugin, Runnable task, long delay, long period);
+
+    /**
+     * Runs a task that touches no player or world state once, after the given number of ticks.
+     */
+    void runGlobalLater(Plugin plugin, Runnable task, long delay);
+
+    /**
+     * Runs a task once off the server threads.
+     */
+    void runAsync(Plugin plugin, Runnable task);
+
+    /**
+     * Repeats a task off the server threads, for work such as file IO that touches no server state.
+     */
+    Task runAsyncTimer(Plugin plugin, Runnable task, long delay, long period);
+
+    /**
+     * Repeats a task on the thread that owns the player, following them between regions. The task stops by itself
+     * once the player is removed.
+     */
+    Task runPlayerTimer(Plugin plugin, Player player, Runnable task, long delay, long period);
+
+    interface Task {
+
+        void cancel();
+    }
+}
@@ -0,0 +1,104 @@
+package com.extendedclip.papi.expansion.player;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalField;
+import java.util.Locale;
+
+import static com.extendedclip.papi.expansion.player.PlayerUtil.ticksAtMidnight;
+import static com.extendedclip.papi.expansion.player.PlayerUtil.ticksPerDay;
+import static com.extendedclip.papi.expansion.player.PlayerUtil.ticksPerHour;
+import static com.extendedclip.papi.expansion.player.PlayerUtil.ticksPerMinute;
+
+/**
+ * An immutable table of every formatted time of a Minecraft day, so formatting world time is a single array lookup.
+ * Patterns without seconds are stored per minute (1440 entries), patterns with seconds per tick (24000 entries).
+ */
+public final class TimeTable {
+
+    private static final int minutesPerDay = 24 * 60;
+
+    public static final TimeTable TWENTY_FOUR = of("HH:mm");
+    public static final TimeTable TWELVE = of("h:mm a");
+
+    private final String[] entries;
+    private final boolean perTick;
+
+    private TimeTable(final String[] entries, final boolean perTick) {
+        this.entries = entries;
+        this.perTick = perTick;
+    }
+
+    /**
+     * Builds a table for a {@link DateTimeFormatter} pattern
+     *
+     * @param pattern The pattern, formatted with {@link Locale#ENGLISH}
+     * @return The table
+     * @throws IllegalArgumentException If the pattern is invalid
+     * @throws DateTimeException If the pattern has fields a time of day doesn't have, such as dates
+     */
+    public static TimeTable of(final String pattern) {
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern, Locale.ENGLISH);
+
+        if (!readsBelowMinutes(formatter)) {
+            final String[] entries = new String[minutesPerDay];
+            for (int minute = 0; minute < minutesPerDay; minute++) {
+                entries[minute] = LocalTime.of(minute / 60, minute % 60).format(formatter).intern();
+            }
+            return new TimeTable(entries, false);
+        }
+
+        // a tick is 3.6 seconds of day time
+        final String[] entries = new String[ticksPerDay];
+        for (int tick = 0; tick < ticksPerDay; tick++) {
+            entries[tick] = LocalTime.ofSecondOfDay(tick * 36L / 10L).format(formatter).intern();
+        }
+        return new TimeTable(entries, true);
+    }
+
+    /**
+     * Formats a time while recording the fields the formatter reads, so literals such as {@code 'hours'} don't count.
+     */
+    private static boolean readsBelowMinutes(final DateTimeFormatter formatter) {
+        final Duration minute = Duration.ofMinutes(1);
+        final LocalTime time = LocalTime.NOON;
+        final boolean[] belowMinutes = new boolean[1];
+        formatter.format(new TemporalAccessor() {
+            @Override
+            public boolean isSupported(final TemporalField field) {
+                return time.isSupported(field);
+            }
+
+            @Override
+            public long getLong(final TemporalField field) {
+                if (field.getBaseUnit().getDuration().compareTo(minute) < 0) {
+                    belowMinutes[0] = true;
+                }
+                return time.getLong(field);
+            }
+        });
+        return belowMinutes[0];
+    }
+
+    public String format(final long ticks) {
+        return perTick ? entries[(int) Math.floorMod(ticks - ticksAtMidnight, (long) ticksPerDay)] : entries[minuteOfDay(ticks)];
+    }
+
+    /**
+     * Same arithmetic the time placeholders always used, so minutes round exactly as before. Anything deciding whether
+     * the shown minute changed has to use this as well.
+     */
+    static int minuteOfDay(long ticks) {
+        ticks = Math.floorMod(ticks, (long) ticksPerDay) - ticksAtMidnight + ticksPerDay;
+        long hours = ticks / ticksPerHour;
+        ticks -= hours * ticksPerHour;
+        final long mins = (long) Math.floor(ticks / ticksPerMinute);
+        if (hours >= 24) {
+            hours = hours - 24;
+        }
+        return (int) (hours * 60 + mins);
+    }
+}
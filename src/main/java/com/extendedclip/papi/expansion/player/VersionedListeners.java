@@ -0,0 +1,115 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockDispenseArmorEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.player.PlayerLocaleChangeEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Listeners for events that older servers don't have. Registering a listener reflects over all of its methods, so a
+ * handler taking a missing event class would fail the whole listener; each one lives in its own class instead and is
+ * only created when {@link Capabilities} found its event.
+ */
+final class VersionedListeners {
+
+    private VersionedListeners() { }
+
+    /**
+     * @param inventoryChanged Called with the player whose inventory may have changed
+     * @param localeChanged Called with the player and their new locale
+     */
+    static List<Listener> create(final Consumer<UUID> inventoryChanged, final BiConsumer<Player, String> localeChanged) {
+        final List<Listener> listeners = new ArrayList<>(4);
+        if (Capabilities.HAS_SWAP_HANDS_EVENT) {
+            listeners.add(new SwapHands(inventoryChanged));
+        }
+        if (Capabilities.HAS_ENTITY_PICKUP_EVENT) {
+            listeners.add(new Pickup(inventoryChanged));
+        }
+        if (Capabilities.HAS_DISPENSE_ARMOR_EVENT) {
+            listeners.add(new DispenseArmor(inventoryChanged));
+        }
+        if (Capabilities.HAS_LOCALE_CHANGE_EVENT) {
+            listeners.add(new LocaleChange(localeChanged));
+        }
+        return listeners;
+    }
+
+    /**
+     * 1.9+
+     */
+    static final class SwapHands implements Listener {
+
+        private final Consumer<UUID> inventoryChanged;
+
+        SwapHands(final Consumer<UUID> inventoryChanged) {
+            this.inventoryChanged = inventoryChanged;
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onSwapHands(final PlayerSwapHandItemsEvent event) {
+            inventoryChanged.accept(event.getPlayer().getUniqueId());
+        }
+    }
+
+    /**
+     * 1.12+
+     */
+    static final class Pickup implements Listener {
+
+        private final Consumer<UUID> inventoryChanged;
+
+        Pickup(final Consumer<UUID> inventoryChanged) {
+            this.inventoryChanged = inventoryChanged;
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onPickup(final EntityPickupItemEvent event) {
+            inventoryChanged.accept(event.getEntity().getUniqueId());
+        }
+    }
+
+    /**
+     * 1.9+
+     */
+    static final class DispenseArmor implements Listener {
+
+        private final Consumer<UUID> inventoryChanged;
+
+        DispenseArmor(final Consumer<UUID> inventoryChanged) {
+            this.inventoryChanged = inventoryChanged;
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onDispenseArmor(final BlockDispenseArmorEvent event) {
+            inventoryChanged.accept(event.getTargetEntity().getUniqueId());
+        }
+    }
+
+    /**
+     * 1.12+
+     */
+    static final class LocaleChange implements Listener {
+
+        private final BiConsumer<Player, String> localeChanged;
+
+        LocaleChange(final BiConsumer<Player, String> localeChanged) {
+            this.localeChanged = localeChanged;
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onLocaleChange(final PlayerLocaleChangeEvent event) {
+            localeChanged.accept(event.getPlayer(), event.getLocale());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DecimalsTest {
+
+    @Test
+    void roundsHalfUpFromTheShortestForm() {
+        // stored just below the printed tie, still rounded like it
+        assertEquals("1.01", Decimals.format(1.005, 2));
+        assertEquals("2.68", Decimals.format(2.675, 2));
+        assertEquals("0.13", Decimals.format(0.125, 2));
+        assertEquals("20", Decimals.format(19.5, 0));
+        assertEquals("-1.01", Decimals.format(-1.005, 2));
+        assertEquals("1.00", Decimals.format(1.004999, 2));
+    }
+
+    @Test
+    void padsToTheRequestedPlaces() {
+        assertEquals("0.1", Decimals.format(0.1, 1));
+        assertEquals("20.00", Decimals.format(20, 2));
+        assertEquals("123.456000000", Decimals.format(123.456, 9));
+        assertEquals("0", Decimals.format(0.4, 0));
+    }
+
+    @Test
+    void dropsTheSignOfZero() {
+        assertEquals("0.00", Decimals.format(-0.001, 2));
+        assertEquals("0.00", Decimals.format(-0.0, 2));
+    }
+
+    @Test
+    void formatsWhatTheFastPathCannotHold() {
+        assertEquals("100000000000000000.00", Decimals.format(1e17, 2));
+        assertEquals("NaN", Decimals.format(Double.NaN, 2));
+        assertEquals("Infinity", Decimals.format(Double.POSITIVE_INFINITY, 2));
+    }
+
+    @Test
+    void matchesBigDecimal() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            final int places = random.nextInt(Decimals.MAX_PLACES + 1);
+            // coordinates, health and the like, with as many digits as they come
+            final double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(8));
+            final String expected = BigDecimal.valueOf(value).setScale(places, RoundingMode.HALF_UP).toPlainString();
+            assertEquals(expected, Decimals.format(value, places), value + " to " + places + " places");
+        }
+    }
+
+    @Test
+    void matchesBigDecimalOnTies() {
+        for (int places = 0; places <= 4; places++) {
+            for (int i = -20_000; i <= 20_000; i++) {
+                final double value = (i + 0.5) / Math.pow(10, places);
+                final String expected = BigDecimal.valueOf(value).setScale(places, RoundingMode.HALF_UP).toPlainString();
+                assertEquals(expected, Decimals.format(value, places), value + " to " + places + " places");
+            }
+        }
+    }
+
+    @Test
+    void rejectsPlacesOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> Decimals.format(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> Decimals.format(1, Decimals.MAX_PLACES + 1));
+    }
+
+    @Test
+    void readsThePrecisionSuffix() {
+        assertEquals(2, Decimals.places("health_2dp"));
+        assertEquals(0, Decimals.places("x_0dp"));
+        assertEquals(-1, Decimals.places("health"));
+        assertEquals(-1, Decimals.places("health_xdp"));
+        assertEquals(-1, Decimals.places("health_2d"));
+        assertEquals(-1, Decimals.places("_2dp"));
+    }
+}
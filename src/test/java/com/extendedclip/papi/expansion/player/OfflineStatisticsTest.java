@@ -0,0 +1,75 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OfflineStatisticsTest {
+
+    private static final StatisticKey JUMP = StatisticKey.parse("JUMP");
+    private static final StatisticKey PLAY_ONE_MINUTE = StatisticKey.parse("PLAY_ONE_MINUTE");
+    private static final StatisticKey MINE_STONE = StatisticKey.parse("MINE_BLOCK_STONE");
+    private static final StatisticKey KILL_ZOMBIE = StatisticKey.parse("KILL_ENTITY_ZOMBIE");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsOnlyTheRequestedStatistics() throws IOException {
+        final File file = write("{\"DataVersion\":3953,\"stats\":{"
+                + "\"minecraft:crafted\":{\"minecraft:stone\":99},"
+                + "\"minecraft:custom\":{\"minecraft:jump\":12,\"minecraft:deaths\":3,\"minecraft:play_time\":400},"
+                + "\"minecraft:mined\":{\"minecraft:dirt\":5,\"minecraft:stone\":7}}}");
+
+        final Map<StatisticKey, Integer> values = OfflineStatistics.read(file, Arrays.asList(JUMP, PLAY_ONE_MINUTE, MINE_STONE));
+
+        assertEquals(3, values.size());
+        assertEquals(12, values.get(JUMP));
+        // kept under its newer name
+        assertEquals(400, values.get(PLAY_ONE_MINUTE));
+        assertEquals(7, values.get(MINE_STONE));
+    }
+
+    @Test
+    void missingStatisticsAreZero() throws IOException {
+        final File file = write("{\"stats\":{\"minecraft:custom\":{\"minecraft:jump\":12}}}");
+
+        final Map<StatisticKey, Integer> values = OfflineStatistics.read(file, Arrays.asList(JUMP, MINE_STONE, KILL_ZOMBIE));
+
+        assertEquals(12, values.get(JUMP));
+        assertEquals(0, values.get(MINE_STONE));
+        assertEquals(0, values.get(KILL_ZOMBIE));
+    }
+
+    @Test
+    void missingFilesAreZero() throws IOException {
+        final Map<StatisticKey, Integer> values = OfflineStatistics.read(directory.resolve("absent.json").toFile(),
+                Collections.singletonList(JUMP));
+
+        assertEquals(0, values.get(JUMP));
+    }
+
+    @Test
+    void namesOfTheSameStatisticAreSummed() throws IOException {
+        // a file carried over from before the rename can hold both
+        final File file = write("{\"stats\":{\"minecraft:custom\":{\"minecraft:play_one_minute\":100,\"minecraft:play_time\":400}}}");
+
+        assertEquals(500, OfflineStatistics.read(file, Collections.singletonList(PLAY_ONE_MINUTE)).get(PLAY_ONE_MINUTE));
+    }
+
+    private File write(final String json) throws IOException {
+        final Path file = directory.resolve("stats.json");
+        Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+        return file.toFile();
+    }
+}
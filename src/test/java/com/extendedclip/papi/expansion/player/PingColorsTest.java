@@ -0,0 +1,70 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.bukkit.ChatColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PingColorsTest {
+
+    private static final String GREEN = ChatColor.COLOR_CHAR + "a";
+    private static final String YELLOW = ChatColor.COLOR_CHAR + "e";
+    private static final String RED = ChatColor.COLOR_CHAR + "c";
+
+    @Test
+    void pingsTakeTheHighestThresholdTheyAreAbove() {
+        final PingColors colors = PingColors.legacy("&a", "&e", "&c", 100, 200);
+
+        assertEquals(GREEN + "0", colors.format(0));
+        assertEquals(GREEN + "100", colors.format(100));
+        assertEquals(YELLOW + "101", colors.format(101));
+        assertEquals(YELLOW + "200", colors.format(200));
+        assertEquals(RED + "201", colors.format(201));
+    }
+
+    @Test
+    void pingsOutsideTheCacheAreColoredToo() {
+        final PingColors colors = PingColors.legacy("&a", "&e", "&c", 100, 200);
+
+        assertEquals(GREEN + "-1", colors.format(-1));
+        assertEquals(RED + "5000", colors.format(5000));
+    }
+
+    @Test
+    void tiersAreSortedByThreshold() {
+        final Map<Integer, String> tiers = new HashMap<>();
+        tiers.put(300, "&c");
+        tiers.put(0, "&a");
+        tiers.put(150, "&e");
+        final PingColors colors = PingColors.of(tiers);
+
+        // the lowest tier also covers pings at or below its own threshold
+        assertEquals(GREEN + "-5", colors.format(-5));
+        assertEquals(GREEN + "150", colors.format(150));
+        assertEquals(YELLOW + "151", colors.format(151));
+        assertEquals(RED + "301", colors.format(301));
+    }
+
+    @Test
+    void noTiersLeaveThePingUncolored() {
+        assertEquals("42", PingColors.of(new HashMap<>()).format(42));
+    }
+
+    @Test
+    void coloredPingsAreCached() {
+        final PingColors colors = PingColors.legacy("&a", "&e", "&c", 100, 200);
+
+        assertSame(colors.format(42), colors.format(42));
+    }
+
+    @Test
+    void hexColorsAreTranslated() {
+        final char c = ChatColor.COLOR_CHAR;
+        assertEquals(c + "x" + c + "f" + c + "f" + c + "8" + c + "0" + c + "0" + c + "0" + c + "l",
+                PingColors.translate("&#FF8000&l"));
+    }
+}
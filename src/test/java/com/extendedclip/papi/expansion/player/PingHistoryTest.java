@@ -0,0 +1,72 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PingHistoryTest {
+
+    @Test
+    void emptyHistoryIsZero() {
+        final PingHistory history = new PingHistory(4);
+
+        assertTrue(history.isEmpty());
+        assertEquals(0, history.last());
+        assertEquals(0, history.average());
+        assertEquals(0, history.min());
+        assertEquals(0, history.max());
+        assertEquals(0, history.jitter());
+        assertEquals(0, history.percentile(50));
+    }
+
+    @Test
+    void summarizesTheSamples() {
+        final PingHistory history = new PingHistory(4);
+        history.record(10);
+        history.record(30);
+        history.record(20);
+
+        assertFalse(history.isEmpty());
+        assertEquals(20, history.last());
+        assertEquals(20, history.average());
+        assertEquals(10, history.min());
+        assertEquals(30, history.max());
+        // |30 - 10| and |20 - 30|
+        assertEquals(15, history.jitter());
+    }
+
+    @Test
+    void keepsOnlyTheNewestSamples() {
+        final PingHistory history = new PingHistory(3);
+        history.record(1);
+        history.record(2);
+        history.record(3);
+        history.record(100);
+
+        assertEquals(100, history.last());
+        assertEquals(35, history.average());
+        assertEquals(2, history.min());
+        assertEquals(100, history.max());
+        // 2, 3, 100 in the order they were recorded
+        assertEquals(49, history.jitter());
+    }
+
+    @Test
+    void percentilesUseTheNearestRank() {
+        final PingHistory history = new PingHistory(5);
+        for (final int ping : new int[]{50, 10, 40, 20, 30}) {
+            history.record(ping);
+        }
+
+        assertEquals(10, history.percentile(0));
+        assertEquals(10, history.percentile(20));
+        assertEquals(20, history.percentile(21));
+        assertEquals(30, history.percentile(50));
+        assertEquals(50, history.percentile(99));
+        assertEquals(50, history.percentile(100));
+        // sorting works on a copy, the order of the samples is kept
+        assertEquals(30, history.last());
+    }
+}
@@ -0,0 +1,62 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StatisticKeyTest {
+
+    @Test
+    void parsesUntypedStatistics() {
+        final StatisticKey jump = StatisticKey.parse("JUMP");
+
+        assertEquals("JUMP", jump.toString());
+        assertEquals("minecraft:custom", jump.getCategory());
+        assertArrayEquals(new String[]{"minecraft:jump"}, jump.getNames());
+    }
+
+    @Test
+    void renamedStatisticsAreReadUnderEveryName() {
+        assertArrayEquals(new String[]{"minecraft:play_one_minute", "minecraft:play_time"},
+                StatisticKey.parse("PLAY_ONE_MINUTE").getNames());
+        assertArrayEquals(new String[]{"minecraft:drop"}, StatisticKey.parse("DROP_COUNT").getNames());
+    }
+
+    @Test
+    void parsesQualifiedStatistics() {
+        final StatisticKey mined = StatisticKey.parse("MINE_BLOCK_STONE");
+        assertEquals("MINE_BLOCK_STONE", mined.toString());
+        assertEquals("minecraft:mined", mined.getCategory());
+        assertArrayEquals(new String[]{"minecraft:stone"}, mined.getNames());
+
+        final StatisticKey killed = StatisticKey.parse("KILL_ENTITY_ZOMBIE");
+        assertEquals("minecraft:killed", killed.getCategory());
+        assertArrayEquals(new String[]{"minecraft:zombie"}, killed.getNames());
+
+        assertEquals("minecraft:crafted", StatisticKey.parse("CRAFT_ITEM_DIAMOND_SWORD").getCategory());
+    }
+
+    @Test
+    void argumentsAreCaseInsensitive() {
+        assertEquals(StatisticKey.parse("MINE_BLOCK_STONE"), StatisticKey.parse("mine_block_stone"));
+        assertEquals(StatisticKey.parse("KILL_ENTITY_ZOMBIE"), StatisticKey.parse("Kill_Entity_zombie"));
+    }
+
+    @Test
+    void rejectsQualifiersThatDoNotFit() {
+        assertNull(StatisticKey.parse("JUMP_STONE"));
+        assertNull(StatisticKey.parse("MINE_BLOCK"));
+        assertNull(StatisticKey.parse("MINE_BLOCK_DIAMOND_SWORD"));
+        assertNull(StatisticKey.parse("MINE_BLOCK_NOT_A_MATERIAL"));
+        assertNull(StatisticKey.parse("KILL_ENTITY_STONE"));
+        assertNull(StatisticKey.parse("KILL_ENTITY_UNKNOWN"));
+    }
+
+    @Test
+    void rejectsUnknownStatistics() {
+        assertNull(StatisticKey.parse("NOT_A_STATISTIC"));
+        assertNull(StatisticKey.parse(""));
+    }
+}
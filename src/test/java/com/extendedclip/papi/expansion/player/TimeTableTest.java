@@ -0,0 +1,75 @@
+package com.extendedclip.papi.expansion.player;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DateTimeException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimeTableTest {
+
+    @Test
+    void minuteTablesFollowTheDay() {
+        assertEquals("06:00", TimeTable.TWENTY_FOUR.format(0));
+        assertEquals("12:00", TimeTable.TWENTY_FOUR.format(6000));
+        assertEquals("18:00", TimeTable.TWENTY_FOUR.format(12000));
+        assertEquals("00:00", TimeTable.TWENTY_FOUR.format(18000));
+        assertEquals("06:30", TimeTable.TWENTY_FOUR.format(501));
+        assertEquals("23:59", TimeTable.TWENTY_FOUR.format(17999));
+
+        assertEquals("6:00 AM", TimeTable.TWELVE.format(0));
+        assertEquals("12:00 PM", TimeTable.TWELVE.format(6000));
+        assertEquals("12:00 AM", TimeTable.TWELVE.format(18000));
+    }
+
+    @Test
+    void minuteTablesWrapAcrossDays() {
+        // the full time of a world counts on across days, and commands can set it negative
+        assertEquals("06:00", TimeTable.TWENTY_FOUR.format(24000));
+        assertEquals("12:00", TimeTable.TWENTY_FOUR.format(3L * 24000 + 6000));
+        assertEquals("05:00", TimeTable.TWENTY_FOUR.format(-1000));
+    }
+
+    @Test
+    void tickTablesKeepTheSeconds() {
+        final TimeTable table = TimeTable.of("HH:mm:ss");
+
+        assertEquals("06:00:00", table.format(0));
+        assertEquals("00:00:00", table.format(18000));
+        // a tick is 3.6 seconds
+        assertEquals("00:00:03", table.format(18001));
+        assertEquals("00:00:07", table.format(18002));
+        assertEquals("00:00:57", table.format(18016));
+        assertEquals("00:01:01", table.format(18017));
+        assertEquals("05:59:56", table.format(23999));
+        assertEquals("00:00:00", table.format(-6000));
+    }
+
+    @Test
+    void literalsDoNotMakeATickTable() {
+        final TimeTable table = TimeTable.of("HH:mm 'seconds'");
+
+        assertEquals("00:00 seconds", table.format(18000));
+        assertEquals("00:00 seconds", table.format(18001));
+    }
+
+    @Test
+    void invalidPatternsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TimeTable.of("HH:mm {"));
+        assertThrows(DateTimeException.class, () -> TimeTable.of("yyyy HH:mm"));
+    }
+
+    @Test
+    void minuteChangesWheneverTheShownTimeDoes() {
+        // ChangeTracker bumps world time placeholders on a new minute of day, so every change of their text must be one
+        for (long tick = 1; tick <= PlayerUtil.ticksPerDay; tick++) {
+            for (final TimeTable table : new TimeTable[]{TimeTable.TWENTY_FOUR, TimeTable.TWELVE}) {
+                if (!table.format(tick).equals(table.format(tick - 1))) {
+                    assertNotEquals(TimeTable.minuteOfDay(tick - 1), TimeTable.minuteOfDay(tick), "tick " + tick);
+                }
+            }
+        }
+    }
+}